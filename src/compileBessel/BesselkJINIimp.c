@@ -22,32 +22,81 @@
 
 extern void F77_FUNCTION(besselk) (double *zr, double *zi, double *real0, double *img0, double *real1, double *img1, int *ierr);
 
-JNIEXPORT jdoubleArray JNICALL 
-Java_edu_oa_curvature_bessel_BesselkJINI_besselk (JNIEnv *env, jobject obj, jdouble zreal, jdouble zimg) {
-  double zr, zi, real0, img0, real1, img1;
+/*
+ * Thread safety: besselk_ can be called by many threads at once without a lock.
+ * This file has no global state and the Fortran code (zbsubs.f, machcon.f) only
+ * keeps constants between calls: the SAVEd tables of I1MACH, R1MACH and D1MACH and
+ * the DATA constants of zbsubs.f are set when the library is loaded and never
+ * written. All other locals must be on the stack, so compile the Fortran code with
+ * -frecursive and never with -fno-automatic (or an f77 compiler with static locals).
+ * The only shared write is the error message of I1MACH/D1MACH for an index out of
+ * bounds, which ZBESK never asks for.
+ */
+
+/*
+ * Single point version, the result is written into the caller's array with one
+ * SetDoubleArrayRegion call, nothing is allocated. If ret is shorter than 5 an
+ * ArrayIndexOutOfBoundsException is pending when this returns.
+ */
+JNIEXPORT void JNICALL 
+Java_edu_oa_curvature_bessel_BesselkJINI_besselk (JNIEnv *env, jobject obj, jdouble zreal, jdouble zimg, jdoubleArray ret) {
+  double zr, zi;
+  jdouble res[5];
   int ierr;
   zr = zreal; 
   zi = zimg;
   
-  F77_FUNCTION(besselk) (&zr, &zi, &real0, &img0, &real1, &img1, &ierr);
+  F77_FUNCTION(besselk) (&zr, &zi, &res[0], &res[1], &res[2], &res[3], &ierr);
   
   /*
   printf ("zr    %f\n", zr);
   printf ("zi    %f\n", zi);
-  printf ("real0 %f\n", real0);
-  printf ("img0  %f\n", img0);
-  printf ("real1 %f\n", real1);
-  printf ("img1  %f\n", img1);
+  printf ("real0 %f\n", res[0]);
+  printf ("img0  %f\n", res[1]);
+  printf ("real1 %f\n", res[2]);
+  printf ("img1  %f\n", res[3]);
   printf ("ierr  %d\n", ierr);
   */
   
-  double errorRep = ierr;
+  res[4] = ierr;
+  (*env)->SetDoubleArrayRegion(env, ret, 0, 5, res);
+}
+
+/*
+ * Batch version, evaluates points offset ... offset+n-1 in one JNI crossing. The arrays
+ * are pinned with GetPrimitiveArrayCritical so no copies are made and nothing is allocated,
+ * no other JNI calls are made while they are held. Length checks are done on the 
+ * Java side (BesselkJINI.besselkBatch), which also keeps n small so the arrays are not
+ * held (and the garbage collector blocked for other threads) for long.
+ */
+JNIEXPORT void JNICALL 
+Java_edu_oa_curvature_bessel_BesselkJINI_nativeBesselkBatch (JNIEnv *env, jclass cls, jdoubleArray zreal, jdoubleArray zimg, jint offset, jint n, 
+    jdoubleArray real0, jdoubleArray img0, jdoubleArray real1, jdoubleArray img1, jintArray ierr) {
+  jdouble *zr, *zi, *r0, *i0, *r1, *i1;
+  jint *err;
+  int i, ierrf;
+  
+  zr = (*env)->GetPrimitiveArrayCritical(env, zreal, NULL);
+  zi = (*env)->GetPrimitiveArrayCritical(env, zimg, NULL);
+  r0 = (*env)->GetPrimitiveArrayCritical(env, real0, NULL);
+  i0 = (*env)->GetPrimitiveArrayCritical(env, img0, NULL);
+  r1 = (*env)->GetPrimitiveArrayCritical(env, real1, NULL);
+  i1 = (*env)->GetPrimitiveArrayCritical(env, img1, NULL);
+  err = (*env)->GetPrimitiveArrayCritical(env, ierr, NULL);
+  
+  if (zr != NULL && zi != NULL && r0 != NULL && i0 != NULL && r1 != NULL && i1 != NULL && err != NULL) {
+    for (i = offset; i < offset + n; i++) {
+      F77_FUNCTION(besselk) (&zr[i], &zi[i], &r0[i], &i0[i], &r1[i], &i1[i], &ierrf);
+      err[i] = ierrf;
+    }
+  }
   
-  jdoubleArray array = (*env)->NewDoubleArray(env, 5);
-  (*env)->SetDoubleArrayRegion(env, array, 0, 1, &real0);
-  (*env)->SetDoubleArrayRegion(env, array, 1, 1, &img0);
-  (*env)->SetDoubleArrayRegion(env, array, 2, 1, &real1);
-  (*env)->SetDoubleArrayRegion(env, array, 3, 1, &img1);
-  (*env)->SetDoubleArrayRegion(env, array, 4, 1, &errorRep);
-  return array;
+  /* Release in reverse order, only the output arrays are copied back */
+  if (err != NULL) (*env)->ReleasePrimitiveArrayCritical(env, ierr, err, 0);
+  if (i1 != NULL) (*env)->ReleasePrimitiveArrayCritical(env, img1, i1, 0);
+  if (r1 != NULL) (*env)->ReleasePrimitiveArrayCritical(env, real1, r1, 0);
+  if (i0 != NULL) (*env)->ReleasePrimitiveArrayCritical(env, img0, i0, 0);
+  if (r0 != NULL) (*env)->ReleasePrimitiveArrayCritical(env, real0, r0, 0);
+  if (zi != NULL) (*env)->ReleasePrimitiveArrayCritical(env, zimg, zi, JNI_ABORT);
+  if (zr != NULL) (*env)->ReleasePrimitiveArrayCritical(env, zreal, zr, JNI_ABORT);
 }
@@ -10,10 +10,18 @@ extern "C" {
 /*
  * Class:     edu_oa_curvature_bessel_BesselkJINI
  * Method:    besselk
- * Signature: (DD)[D
+ * Signature: (DD[D)V
  */
-JNIEXPORT jdoubleArray JNICALL Java_edu_oa_curvature_bessel_BesselkJINI_besselk
-  (JNIEnv *, jobject, jdouble, jdouble);
+JNIEXPORT void JNICALL Java_edu_oa_curvature_bessel_BesselkJINI_besselk
+  (JNIEnv *, jobject, jdouble, jdouble, jdoubleArray);
+
+/*
+ * Class:     edu_oa_curvature_bessel_BesselkJINI
+ * Method:    nativeBesselkBatch
+ * Signature: ([D[DII[D[D[D[D[I)V
+ */
+JNIEXPORT void JNICALL Java_edu_oa_curvature_bessel_BesselkJINI_nativeBesselkBatch
+  (JNIEnv *, jclass, jdoubleArray, jdoubleArray, jint, jint, jdoubleArray, jdoubleArray, jdoubleArray, jdoubleArray, jintArray);
 
 #ifdef __cplusplus
 }
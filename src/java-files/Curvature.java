@@ -1,411 +1,1424 @@
-/*
- * Created on Jul 20, 2004
- * Last modified on Feb 10, 2022 
- */
-package edu.oa.curvature;
-
-import edu.oa.curvature.bessel.BesselkJINI;
-import edu.oa.curvature.utils.Resources;
-import JSci.maths.Complex;
-
-/**
- * Program that calculates and plots the energetics of inclusion-induced bilayer deformations.
- * 
- * Built on paper: (#) Claus Nielsen, Mark Goulian and Olaf S. Andersen. (1998)
- *                     Energetics of Inclusion-Induced Bilayer Deformations.
- *                     Biophysical Journal, 74:1966-1983 
- *             and    
- *                 ($) Claus Nielsen and Olaf S. Andersen. (2000)
- *                     Inclusion-Induced Bilayer Deformations: Effects of Monolayer Equilibrium Curvature
- *                     Biophysical Journal, 79:2583-2604
- * We also use corrections to the (#) paper  (1999) Biophysical Journal, 76:2317, which has changes to 
- * a few of the formulas (ka = 4ka etc)
- * 
- * Definitions:
- *  GC  := Gaussian curvature
- *  MEC := Monolayer equilibrium curvature
- *  DEF := Deformation
- *  CE  := Compression-expansion
- *  SD  := Splay-distortion
- *  ST  := Surface tension
- * 
- * - This program uses a properties file (curvature.properties) which has to be in the class path. 
- * - This class takes care of the main calculations and calls the external Bessel function
- * 
- * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
- */
-public class Curvature {
-
-    // Parameter to convert between units (not in paper)
-    public static final double changeParams = 4.114;
-    // If imag. part of complex result is higher then this threshold then report error
-    private double imagErrorThreshold =  Resources.getDouble(Resources.IMAGERRORTHRESHOLD);
-
-    private Complex kp; // k+
-    private Complex kn; // k-
-    private Complex kp2; // k+^2
-    private Complex kn2; // k-^2
-    private Complex Ap; // A+
-    private Complex An; // A-
-    private double deltaGdef_old;
-    private double d0;
-    private double u0;
-    private double r0;
-    private double ka;
-    private double kc;
-    private double kg;
-    private double s;
-    private double c0;
-    private double alpha;
-    private double gamma;
-    private double beta;
-
-    /**
-     * Set up all relevant parameters for curvature calculations and 
-     * calculate the deformation free energy.
-     * @param d0
-     * @param u0
-     * @param r0
-     * @param c0
-     * @param ka
-     * @param kc
-     * @param kg
-     * @param alpha
-     * @param s	
-     * @param c0
-     * @throws Exception if Bessel function fails or free energy has a non zero imag. part
-     */
-    public Curvature(double d0, double u0, double r0, double ka, double kc, double kg, double alpha, double s, double c0) throws Exception {
-        this.d0 = d0;
-        this.u0 = u0;
-        this.r0 = r0;
-        this.ka = ka;
-        this.kc = kc;
-        this.kg = kg;
-        this.alpha = alpha;
-        this.s = s;
-        this.c0 = c0;
-
-        // Formula #(7)
-        // Note gamma here is alpha in the Energetics of Inclusion-Induced Bilayer Deformation paper
-        gamma = this.alpha / this.kc;
-        beta = (4 * this.ka) / (this.d0 * this.d0 * this.kc); // Note correction ka = 4ka
-
-        /*
-         // Print params to standard out
-         System.out.println("Values d0 = "+d0+", l = "+l+", r0 = "+r0+", c0 = "+c0+", ka = "+ka+", kc = "+kc
-         +", alpha = "+alpha+", gamma = "+gamma+", beta = "+beta+", u0 = "+u0+", s = "+s+", c0 = "+c0);
-         */
-
-        // Calc k+ and k- , Formula #(9)
-        Complex temp = new Complex((gamma * gamma) - (4 * beta), 0).sqrt();
-        kp2 = new Complex(gamma, 0).add(temp).divide(2);
-        kn2 = new Complex(gamma, 0).subtract(temp).divide(2);
-        kp = kp2.sqrt();
-        kn = kn2.sqrt();
-
-        // Calc A+ and A- , Formulas #(12a) and #(12b)
-        Complex[] Kkpr0 = BesselkJINI.getBesselK(kp.multiply(r0));
-        Complex[] Kknr0 = BesselkJINI.getBesselK(kn.multiply(r0));
-        Complex div = (kn.multiply(Kkpr0[0].multiply(Kknr0[1]))).subtract(kp.multiply(Kknr0[0].multiply(Kkpr0[1])));
-        Ap = ((kn.multiply(Kknr0[1].multiply(u0))).add(Kknr0[0].multiply(this.s))).divide(div);
-        An = ((kp.multiply(Kkpr0[1].multiply(-u0))).subtract(Kkpr0[0].multiply(this.s))).divide(div);
-
-        // Calc deformation free energy from (#), using Formula #(13)
-        // Node: if c0 is not 0 this is not the correct energy, that is it's missing the MEC term ($)
-        //       Additionally this energy dose not contain the GC term.  
-        temp = ((Ap.multiply(kp2).multiply(Kkpr0[0])).add(An.multiply(kn2).multiply(Kknr0[0]))).multiply(this.s);
-        temp = temp.add(((Ap.multiply(kp.multiply(kp2)).multiply(Kkpr0[1])).add(An.multiply(kn.multiply(kn2)).multiply(Kknr0[1]))).multiply(u0));
-        temp = temp.addReal(gamma * this.u0 * this.s);
-        Complex res = temp.multiply(-Math.PI * this.r0 * this.kc);
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Error the free energy has a non zero imag. part of = " + res.imag()); }
-        deltaGdef_old = res.real() / changeParams;
-    }   
-
-    /**
-     * Calculate u(r)
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param r Radical distance from inclusion symmetry axis
-     * @return Monolayer deformation at distance r from inclusion symmetry axis
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getU(double r) throws Exception {
-        // Formula #(10)
-        Complex[] kPosArray = BesselkJINI.getBesselK(kp.multiply(r));
-        Complex[] kNegArray = BesselkJINI.getBesselK(kn.multiply(r));
-        Complex res = (Ap.multiply(kPosArray[0])).add(An.multiply(kNegArray[0]));
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning u(" + r + ") has a non zero imag. part of = " + res.imag()); }
-        return res.real();
-    }
-
-    /**
-     * Calculate u'(r)
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param r Radical distance from inclusion symmetry axis
-     * @return Monolayer deformation at distance r from inclusion symmetry axis
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getdU(double r) throws Exception {
-        // Formula #(11)b
-        Complex[] kPosArray = BesselkJINI.getBesselK(kp.multiply(r));
-        Complex[] kNegArray = BesselkJINI.getBesselK(kn.multiply(r));
-        Complex res = (Ap.multiply(kp).multiply(kPosArray[1])).add(An.multiply(kn).multiply(kNegArray[1]));
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning u(" + r + ") has a non zero imag. part of = " + res.imag()); }
-        return -1 * res.real();
-    }
-
-    
-    /**
-     * Calculate u(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param startR Start value
-     * @param startR Stop value
-     * @param interval Interval value
-     * @return an array of [x, u(x)] values
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double[][] getUforRange(double startR, double stopR, double interval) throws Exception {
-        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
-        int size = (int) Math.floor((stopR - startR) / interval);
-        double[][] retArray = new double[2][size];
-        for (int i = 0; i < retArray[0].length; i++) {
-            if (i == 0) {
-                retArray[0][i] = startR;
-            } else {
-                retArray[0][i] = retArray[0][i - 1] + interval;
-            }
-            retArray[1][i] = getU(retArray[0][i]);
-        }
-        return retArray;
-    }
-
-    /**
-     * Calculate deltaGce(r)
-     * Ref paper: Energerics of Inclusion-Induced Bilayer Deformation,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param r Radical distance from inclusion symmetry axis
-     * @return energy component corresponding to the compression-expansion
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getDeltaGce(double r) throws Exception {
-        // Formula #(16a) and #(10)
-    	double u = getU(r);      
-        return (u * u * (Math.PI * r * 4 * ka) / (d0 * d0)) / changeParams;
-    }
-
-    /**
-     * Calculate deltaGce(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
-     * Ref paper: Energerics of Inclusion-Induced Bilayer Deformation,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param startR Start value
-     * @param startR Stop value
-     * @param interval Interval value
-     * @return an array of [x, deltaGce(x)] values
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double[][] getDeltaGceforRange(double startR, double stopR, double interval) throws Exception {
-        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
-        int size = (int) Math.floor((stopR - startR) / interval);
-        double[][] retArray = new double[2][size];
-        for (int i = 0; i < retArray[0].length; i++) {
-            if (i == 0) {
-                retArray[0][i] = startR;
-            } else {
-                retArray[0][i] = retArray[0][i - 1] + interval;
-            }
-            retArray[1][i] = getDeltaGce(retArray[0][i]);
-        }
-        return retArray;
-    }
-
-    /**
-     * Calculate deltaGsd(r) ( bad aproximation )
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformation,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param r Radical distance from inclusion symmetry axis
-     * @return energy component corresponding to the splay-distortion
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getDeltaGsd(double r) throws Exception {
-        // Formula #(16b), #(8) and #(A13)
-        Complex[] kPosArray = BesselkJINI.getBesselK(kp.multiply(r));
-        Complex[] kNegArray = BesselkJINI.getBesselK(kn.multiply(r));
-        Complex temp1 = kp2.multiply(Ap.multiply(kPosArray[0]));
-        Complex temp2 = kn2.multiply(An.multiply(kNegArray[0]));
-        Complex res = (temp1.add(temp2)).pow(2.0).multiply(Math.PI * r * kc);
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGsd(" + r + ") has a non zero imag. part of = " + res.imag()); }
-        return res.real() / changeParams;
-    }
-    
-    /**
-     * Calculate deltaGsd(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformation,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param startR Start value
-     * @param startR Stop value
-     * @param interval Interval value
-     * @return an array of [x, deltaGsd(x)] values
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double[][] getDeltaGsdforRange(double startR, double stopR, double interval) throws Exception {
-        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
-        int size = (int) Math.floor((stopR - startR) / interval);
-        double[][] retArray = new double[2][size];
-        for (int i = 0; i < retArray[0].length; i++) {
-            if (i == 0) {
-                retArray[0][i] = startR;
-            } else {
-                retArray[0][i] = retArray[0][i - 1] + interval;
-            }
-            retArray[1][i] = getDeltaGsd(retArray[0][i]);
-        }
-        return retArray;
-    }
-
-    /**
-     * Calculate deltaGst(r)
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param r Radical distance from inclusion symmetry axis
-     * @return energy component corresponding to the surface tension
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getDeltaGst(double r) throws Exception {
-        // Formula #(16c) and #(8)
-        Complex[] kPosArray = BesselkJINI.getBesselK(kp.multiply(r));
-        Complex[] kNegArray = BesselkJINI.getBesselK(kn.multiply(r));
-        Complex temp1 = kp.multiply(Ap.multiply(kPosArray[1]));
-        Complex temp2 = kn.multiply(An.multiply(kNegArray[1]));
-        Complex res = (temp1.add(temp2)).pow(2.0).multiply(Math.PI * r * alpha);
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGst(" + r + ") has a non zero imag. part of = " + res.imag()); }
-        return res.real() / changeParams;
-    }
-
-    /**
-     * Calculate deltaGst(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param startR Start value
-     * @param startR Stop value
-     * @param interval Interval value
-     * @return an array of [x, deltaGst(x)] values
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double[][] getDeltaGstforRange(double startR, double stopR, double interval) throws Exception {
-        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
-        int size = (int) Math.floor((stopR - startR) / interval);
-        double[][] retArray = new double[2][size];
-        for (int i = 0; i < retArray[0].length; i++) {
-            if (i == 0) {
-                retArray[0][i] = startR;
-            } else {
-                retArray[0][i] = retArray[0][i - 1] + interval;
-            }
-            retArray[1][i] = getDeltaGst(retArray[0][i]);
-        }
-        return retArray;
-    }
-
-    /**
-     * Calculate deltaGdef(r) as the sum of the partial energies ce, sd, st, and mec
-     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
-     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
-     * @param ceValues deltaGce energies
-     * @param sdValues deltaGsd energies
-     * @param stValues deltaGst energies
-     * @return an array of [x, deltaGdef(x)] values
-     */
-    public double[][] getDeltaGdefforRange(double[][] ceValues, double[][] sdValues, double[][] stValues, double[][] mecValues) {
-        double[][] retArray = new double[2][ceValues[0].length];
-        for (int i = 0; i < retArray[0].length; i++) {
-            retArray[0][i] = ceValues[0][i];
-            retArray[1][i] = ceValues[1][i] + sdValues[1][i] + stValues[1][i] + mecValues[1][i];
-        }
-        return retArray;
-    }
-    
-    /**
-     * Calculate deltaGmec(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
-     * @param startR Start value
-     * @param startR Stop value
-     * @param interval Interval value
-     * @return an array of [x, deltaGmec(x)] values
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double[][] getDeltaGmecforRange(double startR, double stopR, double interval) throws Exception {
-        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
-        int size = (int) Math.floor((stopR - startR) / interval);
-        double[][] retArray = new double[2][size];
-        for (int i = 0; i < retArray[0].length; i++) {
-            if (i == 0) {
-                retArray[0][i] = startR;
-            } else {
-                retArray[0][i] = retArray[0][i - 1] + interval;
-            }
-            retArray[1][i] = getDeltaGmec(retArray[0][i]);
-        }
-        return retArray;
-    }
-    
-    /**
-     * Calculate deltaGmec(r)
-     * @param r Radical distance from inclusion symmetry axis
-     * @return energy component corresponding to the c0 dependent term of the deformation free energy
-     * @throws Exception if Bessel function fails or result has a non zero imag part.
-     */
-    public double getDeltaGmec(double r) throws Exception {
-        // Formula $(7) and #(A13)
-        Complex[] kPosArray = BesselkJINI.getBesselK(kp.multiply(r));
-        Complex[] kNegArray = BesselkJINI.getBesselK(kn.multiply(r));
-        Complex temp1 = kp2.multiply(Ap.multiply(kPosArray[0]));
-        Complex temp2 = kn2.multiply(An.multiply(kNegArray[0]));
-        Complex res = (temp1.add(temp2)).multiply(-2 * Math.PI * kc * c0 * r);
-        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGmec(" + r + ") has a non zero imag. part of = " + res.imag()); }
-        return res.real() / changeParams;
-    }
-
-    /**
-     * Calclate deltaG_MEC (Monolayer equilibrium curvature), formula $(7)
-     * Get the c0 dependent term of the deformation free energy
-     * @return Returns the deltaGmec.
-     */
-    public double getDeltaGmec() {
-    	// Eq. $(7) 
-		double deltaGmec = (2 *  Math.PI * kc * c0 * r0 * s) / changeParams; 
-		return deltaGmec;
-    }
-    
-    /**
-     * Calclate deltaG_GC (Gaussian curvature), formula $(A1) 
-     * @return Returns the deltaGgc.
-     */
-    public double getDeltaGgc() {
-    	// Eq. $(A1), Note that kg is the Mean splay-distortion modulus
-    	// and kg/kc is extimated to be less than 0.05 ($ see appendix)
-		double deltaGgc = ((Math.PI / 2) * kg * (s * s / (1 + (s * s)))) / changeParams; 
-		return deltaGgc;
-    }
-    
-    /**
-     * Get the deformation free energy
-     * Node: this is only the CE, SD and ST parts (the one that depend on u(r))
-     *       missing the MEC and GC
-     * @return Returns the deltaGdef_old.
-     */
-    public double getDeltaGdef_old() {
-    	// change
-        return deltaGdef_old;
-    }
-    
-    /**
-     * Get the total deformation free energy
-     * @return Returns the deltaGdef.
-     */
-    public double getDeltaGdef() {
-        return getDeltaGdef_old() + getDeltaGmec() + getDeltaGgc();
-    }
-
-}
+/*
+ * Created on Jul 20, 2004
+ * Last modified on Feb 10, 2022 
+ */
+package edu.oa.curvature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import edu.oa.curvature.bessel.Besselk;
+import edu.oa.curvature.bessel.BesselkRayTable;
+import edu.oa.curvature.utils.Quadrature;
+import edu.oa.curvature.utils.Resources;
+import JSci.maths.Complex;
+
+/**
+ * Program that calculates and plots the energetics of inclusion-induced bilayer deformations.
+ * 
+ * Built on paper: (#) Claus Nielsen, Mark Goulian and Olaf S. Andersen. (1998)
+ *                     Energetics of Inclusion-Induced Bilayer Deformations.
+ *                     Biophysical Journal, 74:1966-1983 
+ *             and    
+ *                 ($) Claus Nielsen and Olaf S. Andersen. (2000)
+ *                     Inclusion-Induced Bilayer Deformations: Effects of Monolayer Equilibrium Curvature
+ *                     Biophysical Journal, 79:2583-2604
+ * We also use corrections to the (#) paper  (1999) Biophysical Journal, 76:2317, which has changes to 
+ * a few of the formulas (ka = 4ka etc)
+ * 
+ * Definitions:
+ *  GC  := Gaussian curvature
+ *  MEC := Monolayer equilibrium curvature
+ *  DEF := Deformation
+ *  CE  := Compression-expansion
+ *  SD  := Splay-distortion
+ *  ST  := Surface tension
+ * 
+ * - This program uses a properties file (curvature.properties) which has to be in the class path. 
+ * - This class takes care of the main calculations and calls the Bessel function (Besselk)
+ * 
+ * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
+ */
+public class Curvature {
+
+    // Parameter to convert between units (not in paper)
+    public static final double changeParams = 4.114;
+    // If imag. part of complex result is higher then this threshold then report error
+    private double imagErrorThreshold =  Resources.getDouble(Resources.IMAGERRORTHRESHOLD);
+    // Number of grid points in each task when a range is calculated in parallel
+    public static final int PARALLEL_CHUNK = 512;
+    // Number of grid points calculated at a time by streamProfile
+    public static final int STREAM_CHUNK = 8 * PARALLEL_CHUNK;
+    // Number of intervals the adaptive grid starts with, and max number of times they are halved
+    private static final int ADAPTIVE_START = 16;
+    private static final int ADAPTIVE_LEVELS = 20;
+    // Index of each value in the result of getIntegrals and in the arrays passed to calcRange
+    public static final int U = 0;
+    public static final int DU = 1;
+    public static final int CE = 2;
+    public static final int SD = 3;
+    public static final int ST = 4;
+    public static final int MEC = 5;
+    public static final int DEF = 6;
+    // Status of each point of a range, see calcProfile, a failed point has Double.NaN values
+    public static final int STATUS_OK = 0;
+    public static final int STATUS_BESSEL = 1; // Bessel function failed
+    public static final int STATUS_IMAG = 2; // a value has a non zero imag part
+    // The integration panels grow up to this many decay lengths, and the tail starts after 
+    // this many decay lengths
+    private static final double PANEL_DECAY_LENGTHS = 2.0;
+    private static final double TAIL_DECAY_LENGTHS = 6.0;
+    // Max number of Newton iterations of getSmin
+    private static final int SMIN_ITERATIONS = 50;
+
+    private Complex kp; // k+
+    private Complex kn; // k-
+    private Complex kp2; // k+^2
+    private Complex kn2; // k-^2
+    private boolean conjugateRoots; // k- is the complex conjugate of k+
+    private BesselkRayTable kpTable; // Interpolated K(k+ * r), null if not used
+    private BesselkRayTable knTable; // Interpolated K(k- * r), null if not used
+    private ExecutorService executor; // Used for the range calculations, null for serial
+    private Complex Ap; // A+
+    private Complex An; // A-
+    private Complex[] Kkpr0; // K0(k+ * r0) and K1(k+ * r0)
+    private Complex[] Kknr0; // K0(k- * r0) and K1(k- * r0)
+    // A+, A+ * k+ and A+ * k+^2 split in real and imag. part for the per point calculations
+    private double apRe, apIm, apkRe, apkIm, apk2Re, apk2Im;
+    // A-, A- * k- and A- * k-^2
+    private double anRe, anIm, ankRe, ankIm, ank2Re, ank2Im;
+    // deltaGdef_old = (a1 * u0^2 + a2 * s * u0 + a3 * s^2) / changeParams for any u0 and s, 
+    // split in real and imag. part
+    private double a1Re, a1Im;
+    private double a2Re, a2Im;
+    private double a3Re, a3Im;
+    private double deltaGdef_old;
+    private double d0;
+    private double u0;
+    private double r0;
+    private double ka;
+    private double kc;
+    private double kg;
+    private double s;
+    private double c0;
+    private double alpha;
+    private double gamma;
+    private double beta;
+
+    /**
+     * Set up all relevant parameters for curvature calculations and 
+     * calculate the deformation free energy.
+     * @param d0
+     * @param u0
+     * @param r0
+     * @param c0
+     * @param ka
+     * @param kc
+     * @param kg
+     * @param alpha
+     * @param s	
+     * @param c0
+     * @throws Exception if Bessel function fails or free energy has a non zero imag. part
+     */
+    public Curvature(double d0, double u0, double r0, double ka, double kc, double kg, double alpha, double s, double c0) throws Exception {
+        this(MaterialBoundary.get(Material.get(d0, ka, kc, alpha), r0), u0, kg, s, c0);
+    }
+
+    /**
+     * Set up a curvature calculation for a material and r0 whose k+, k- and Bessel values 
+     * at r0 are already calculated, see Material and MaterialBoundary. This does not call 
+     * the Bessel function, so it is cheap to create many instances that only differ in 
+     * u0, s or c0.
+     * @param boundary Material constants d0, ka, kc, alpha and r0
+     * @param u0
+     * @param kg
+     * @param s	
+     * @param c0
+     * @throws Exception if free energy has a non zero imag. part
+     */
+    public Curvature(MaterialBoundary boundary, double u0, double kg, double s, double c0) throws Exception {
+        Material material = boundary.getMaterial();
+        this.d0 = material.getD0();
+        this.u0 = u0;
+        this.r0 = boundary.getR0();
+        this.ka = material.getKa();
+        this.kc = material.getKc();
+        this.kg = kg;
+        this.alpha = material.getAlpha();
+        this.s = s;
+        this.c0 = c0;
+
+        // Formulas #(7) and #(9), see Material
+        gamma = material.getGamma();
+        beta = material.getBeta();
+        kp = material.getKp();
+        kn = material.getKn();
+        kp2 = material.getKp2();
+        kn2 = material.getKn2();
+        conjugateRoots = material.isConjugateRoots();
+
+        // Calc A+ and A- , Formulas #(12a) and #(12b)
+        Kkpr0 = boundary.getKkpr0();
+        Kknr0 = boundary.getKknr0();
+        Complex div = boundary.getDiv();
+        Ap = ((kn.multiply(Kknr0[1].multiply(u0))).add(Kknr0[0].multiply(this.s))).divide(div);
+        An = ((kp.multiply(Kkpr0[1].multiply(-u0))).subtract(Kkpr0[0].multiply(this.s))).divide(div);
+        apRe = Ap.real();
+        apIm = Ap.imag();
+        apkRe = Ap.multiply(kp).real();
+        apkIm = Ap.multiply(kp).imag();
+        apk2Re = kp2.multiply(Ap).real();
+        apk2Im = kp2.multiply(Ap).imag();
+        anRe = An.real();
+        anIm = An.imag();
+        ankRe = An.multiply(kn).real();
+        ankIm = An.multiply(kn).imag();
+        ank2Re = kn2.multiply(An).real();
+        ank2Im = kn2.multiply(An).imag();
+
+        // Quadratic form of the energy in u0 and s, see MaterialBoundary
+        a1Re = boundary.getA1Re();
+        a1Im = boundary.getA1Im();
+        a2Re = boundary.getA2Re();
+        a2Im = boundary.getA2Im();
+        a3Re = boundary.getA3Re();
+        a3Im = boundary.getA3Im();
+
+        // Calc deformation free energy from (#), using Formula #(13)
+        // Node: if c0 is not 0 this is not the correct energy, that is it's missing the MEC term ($)
+        //       Additionally this energy dose not contain the GC term.  
+        Complex temp = ((Ap.multiply(kp2).multiply(Kkpr0[0])).add(An.multiply(kn2).multiply(Kknr0[0]))).multiply(this.s);
+        temp = temp.add(((Ap.multiply(kp.multiply(kp2)).multiply(Kkpr0[1])).add(An.multiply(kn.multiply(kn2)).multiply(Kknr0[1]))).multiply(u0));
+        temp = temp.addReal(gamma * this.u0 * this.s);
+        Complex res = temp.multiply(-Math.PI * this.r0 * this.kc);
+        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Error the free energy has a non zero imag. part of = " + res.imag()); }
+        deltaGdef_old = res.real() / changeParams;
+    }   
+
+    /**
+     * Calculate u(r)
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param r Radical distance from inclusion symmetry axis
+     * @return Monolayer deformation at distance r from inclusion symmetry axis
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getU(double r) throws Exception {
+        double[][] kPos = getBesselK(kp, kpTable, r);
+        double[][] kNeg = getBesselKneg(r, kPos);
+        return checkImag(calcU(r, kPos, kNeg, 0), "u", r);
+    }
+
+    /**
+     * Calculate u(r) from point i of the Bessel values K(k+ * r) and K(k- * r), Double.NaN 
+     * if the result has a non zero imag part
+     */
+    private double calcU(double r, double[][] kPos, double[][] kNeg, int i) {
+        // Formula #(10), A+ * K0(k+ * r) + A- * K0(k- * r)
+        double re = (apRe * kPos[0][i] - apIm * kPos[1][i]) + (anRe * kNeg[0][i] - anIm * kNeg[1][i]);
+        double im = (apRe * kPos[1][i] + apIm * kPos[0][i]) + (anRe * kNeg[1][i] + anIm * kNeg[0][i]);
+        if (Math.abs(im) > imagErrorThreshold) { return Double.NaN; }
+        return re;
+    }
+
+    /**
+     * Calculate u'(r)
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param r Radical distance from inclusion symmetry axis
+     * @return Monolayer deformation at distance r from inclusion symmetry axis
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getdU(double r) throws Exception {
+        double[][] kPos = getBesselK(kp, kpTable, r);
+        double[][] kNeg = getBesselKneg(r, kPos);
+        return checkImag(calcdU(r, kPos, kNeg, 0), "u'", r);
+    }
+
+    /**
+     * Calculate u'(r) from point i of the Bessel values K(k+ * r) and K(k- * r), Double.NaN 
+     * if the result has a non zero imag part
+     */
+    private double calcdU(double r, double[][] kPos, double[][] kNeg, int i) {
+        // Formula #(11)b, -(A+ * k+ * K1(k+ * r) + A- * k- * K1(k- * r))
+        double re = (apkRe * kPos[2][i] - apkIm * kPos[3][i]) + (ankRe * kNeg[2][i] - ankIm * kNeg[3][i]);
+        double im = (apkRe * kPos[3][i] + apkIm * kPos[2][i]) + (ankRe * kNeg[3][i] + ankIm * kNeg[2][i]);
+        if (Math.abs(im) > imagErrorThreshold) { return Double.NaN; }
+        return -1 * re;
+    }
+
+    
+    /**
+     * Calculate u(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return an array of [x, u(x)] values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double[][] getUforRange(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = newRangeArray(startR, stopR, interval);
+        double[][] values = new double[DEF + 1][];
+        values[U] = retArray[1];
+        calcRange(retArray[0], retArray[0].length, values);
+        return retArray;
+    }
+
+    /**
+     * Calculate deltaGce(r)
+     * Ref paper: Energerics of Inclusion-Induced Bilayer Deformation,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param r Radical distance from inclusion symmetry axis
+     * @return energy component corresponding to the compression-expansion
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getDeltaGce(double r) throws Exception {
+        return calcDeltaGce(r, getU(r));
+    }
+
+    /**
+     * Calculate deltaGce(r) from u(r)
+     */
+    private double calcDeltaGce(double r, double u) {
+        // Formula #(16a) and #(10)
+        return (u * u * (Math.PI * r * 4 * ka) / (d0 * d0)) / changeParams;
+    }
+
+    /**
+     * Calculate deltaGce(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
+     * Ref paper: Energerics of Inclusion-Induced Bilayer Deformation,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return an array of [x, deltaGce(x)] values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double[][] getDeltaGceforRange(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = newRangeArray(startR, stopR, interval);
+        double[][] values = new double[DEF + 1][];
+        values[CE] = retArray[1];
+        calcRange(retArray[0], retArray[0].length, values);
+        return retArray;
+    }
+
+    /**
+     * Calculate deltaGsd(r) ( bad aproximation )
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformation,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param r Radical distance from inclusion symmetry axis
+     * @return energy component corresponding to the splay-distortion
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getDeltaGsd(double r) throws Exception {
+        double[][] kPos = getBesselK(kp, kpTable, r);
+        double[][] kNeg = getBesselKneg(r, kPos);
+        return checkImag(calcDeltaGsd(r, kPos, kNeg, 0), "deltaGsd", r);
+    }
+
+    /**
+     * Calculate deltaGsd(r) from point i of the Bessel values K(k+ * r) and K(k- * r), Double.NaN 
+     * if the result has a non zero imag part
+     */
+    private double calcDeltaGsd(double r, double[][] kPos, double[][] kNeg, int i) {
+        // Formula #(16b), #(8) and #(A13), (k+^2 * A+ * K0(k+ * r) + k-^2 * A- * K0(k- * r))^2
+        double tempRe = (apk2Re * kPos[0][i] - apk2Im * kPos[1][i]) + (ank2Re * kNeg[0][i] - ank2Im * kNeg[1][i]);
+        double tempIm = (apk2Re * kPos[1][i] + apk2Im * kPos[0][i]) + (ank2Re * kNeg[1][i] + ank2Im * kNeg[0][i]);
+        double fact = Math.PI * r * kc;
+        double re = (tempRe * tempRe - tempIm * tempIm) * fact;
+        double im = 2 * tempRe * tempIm * fact;
+        if (Math.abs(im) > imagErrorThreshold) { return Double.NaN; }
+        return re / changeParams;
+    }
+    
+    /**
+     * Calculate deltaGsd(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformation,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return an array of [x, deltaGsd(x)] values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double[][] getDeltaGsdforRange(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = newRangeArray(startR, stopR, interval);
+        double[][] values = new double[DEF + 1][];
+        values[SD] = retArray[1];
+        calcRange(retArray[0], retArray[0].length, values);
+        return retArray;
+    }
+
+    /**
+     * Calculate deltaGst(r)
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param r Radical distance from inclusion symmetry axis
+     * @return energy component corresponding to the surface tension
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getDeltaGst(double r) throws Exception {
+        double[][] kPos = getBesselK(kp, kpTable, r);
+        double[][] kNeg = getBesselKneg(r, kPos);
+        return checkImag(calcDeltaGst(r, kPos, kNeg, 0), "deltaGst", r);
+    }
+
+    /**
+     * Calculate deltaGst(r) from point i of the Bessel values K(k+ * r) and K(k- * r), Double.NaN 
+     * if the result has a non zero imag part
+     */
+    private double calcDeltaGst(double r, double[][] kPos, double[][] kNeg, int i) {
+        // Formula #(16c) and #(8), (k+ * A+ * K1(k+ * r) + k- * A- * K1(k- * r))^2
+        double tempRe = (apkRe * kPos[2][i] - apkIm * kPos[3][i]) + (ankRe * kNeg[2][i] - ankIm * kNeg[3][i]);
+        double tempIm = (apkRe * kPos[3][i] + apkIm * kPos[2][i]) + (ankRe * kNeg[3][i] + ankIm * kNeg[2][i]);
+        double fact = Math.PI * r * alpha;
+        double re = (tempRe * tempRe - tempIm * tempIm) * fact;
+        double im = 2 * tempRe * tempIm * fact;
+        if (Math.abs(im) > imagErrorThreshold) { return Double.NaN; }
+        return re / changeParams;
+    }
+
+    /**
+     * Calculate deltaGst(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return an array of [x, deltaGst(x)] values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double[][] getDeltaGstforRange(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = newRangeArray(startR, stopR, interval);
+        double[][] values = new double[DEF + 1][];
+        values[ST] = retArray[1];
+        calcRange(retArray[0], retArray[0].length, values);
+        return retArray;
+    }
+
+    /**
+     * Calculate deltaGdef(r) as the sum of the partial energies ce, sd, st, and mec
+     * Ref paper: Energetics of Inclusion-Induced Bilayer Deformations,
+     *            Claus Nielsen, Mark Goulian and Olaf S. Andersen
+     * @param ceValues deltaGce energies
+     * @param sdValues deltaGsd energies
+     * @param stValues deltaGst energies
+     * @return an array of [x, deltaGdef(x)] values
+     */
+    public double[][] getDeltaGdefforRange(double[][] ceValues, double[][] sdValues, double[][] stValues, double[][] mecValues) {
+        double[][] retArray = new double[2][ceValues[0].length];
+        for (int i = 0; i < retArray[0].length; i++) {
+            retArray[0][i] = ceValues[0][i];
+            retArray[1][i] = ceValues[1][i] + sdValues[1][i] + stValues[1][i] + mecValues[1][i];
+        }
+        return retArray;
+    }
+    
+    /**
+     * Calculate deltaGmec(r) for a range starting at "startR" and ending at "stopR" with interval "interval"
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return an array of [x, deltaGmec(x)] values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double[][] getDeltaGmecforRange(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = newRangeArray(startR, stopR, interval);
+        double[][] values = new double[DEF + 1][];
+        values[MEC] = retArray[1];
+        calcRange(retArray[0], retArray[0].length, values);
+        return retArray;
+    }
+    
+    /**
+     * Calculate deltaGmec(r)
+     * @param r Radical distance from inclusion symmetry axis
+     * @return energy component corresponding to the c0 dependent term of the deformation free energy
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public double getDeltaGmec(double r) throws Exception {
+        double[][] kPos = getBesselK(kp, kpTable, r);
+        double[][] kNeg = getBesselKneg(r, kPos);
+        return checkImag(calcDeltaGmec(r, kPos, kNeg, 0), "deltaGmec", r);
+    }
+
+    /**
+     * Calculate deltaGmec(r) from point i of the Bessel values K(k+ * r) and K(k- * r), Double.NaN 
+     * if the result has a non zero imag part
+     */
+    private double calcDeltaGmec(double r, double[][] kPos, double[][] kNeg, int i) {
+        // Formula $(7) and #(A13), k+^2 * A+ * K0(k+ * r) + k-^2 * A- * K0(k- * r)
+        double tempRe = (apk2Re * kPos[0][i] - apk2Im * kPos[1][i]) + (ank2Re * kNeg[0][i] - ank2Im * kNeg[1][i]);
+        double tempIm = (apk2Re * kPos[1][i] + apk2Im * kPos[0][i]) + (ank2Re * kNeg[1][i] + ank2Im * kNeg[0][i]);
+        double fact = -2 * Math.PI * kc * c0 * r;
+        double re = tempRe * fact;
+        double im = tempIm * fact;
+        if (Math.abs(im) > imagErrorThreshold) { return Double.NaN; }
+        return re / changeParams;
+    }
+
+    /**
+     * Calculate u(r), u'(r) and all energy components for a range starting at "startR" and 
+     * ending at "stopR" with interval "interval" in one pass over the grid, the Bessel 
+     * functions are calculated once per point and shared by all components.
+     * Gives the same values as getUforRange, getDeltaGceforRange, getDeltaGsdforRange,
+     * getDeltaGstforRange, getDeltaGmecforRange and getDeltaGdefforRange.
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @return the grid and all values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public ProfileResult getProfile(double startR, double stopR, double interval) throws Exception {
+        return getProfile(startR, stopR, interval, null);
+    }
+
+    /**
+     * Same as getProfile(startR, stopR, interval), but the values are written into "reuse" 
+     * when it is not null. Its columns are only reallocated when the new range has more 
+     * points than they can hold, so recalculating a profile of the same or smaller size, 
+     * for example each time a parameter is changed in the GUI, does not allocate.
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @param reuse Result to fill, or null for a new one
+     * @return the grid and all values, "reuse" if it is not null
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public ProfileResult getProfile(double startR, double stopR, double interval, ProfileResult reuse) throws Exception {
+        ProfileResult profile = reuse != null ? reuse : new ProfileResult();
+        if (calcProfile(startR, stopR, interval, profile) > 0) {
+            checkStatus(profile.getR(), profile.size(), profile.getStatus());
+        }
+        return profile;
+    }
+
+    /**
+     * Calculate u(r), u'(r) and all energy components for a range starting at "startR" and 
+     * ending at "stopR" with interval "interval" into "result", like getProfile, but without 
+     * throwing an exception for points that fail. The values of such a point are Double.NaN 
+     * and its status in result.getStatus() is STATUS_BESSEL or STATUS_IMAG instead of 
+     * STATUS_OK, the other points are calculated as usual. Meant for sweeps where some 
+     * parameters are expected to fail and exceptions would cost more than the calculation.
+     * @param startR Start value
+     * @param startR Stop value
+     * @param interval Interval value
+     * @param result Result to fill, its columns are reused if they are large enough
+     * @return number of points that failed, also result.getFailedCount(), 
+     * result.getFailedCount(STATUS_BESSEL) and result.getFailedCount(STATUS_IMAG) give the 
+     * number for each reason
+     * @throws Exception if startR > stopR
+     */
+    public int calcProfile(double startR, double stopR, double interval, ProfileResult result) throws Exception {
+        int n = rangeSize(startR, stopR, interval);
+        result.resize(n);
+        fillRange(result.getR(), n, startR, interval);
+        double[][] values = new double[DEF + 1][];
+        for (int v = 0; v <= DEF; v++) {
+            values[v] = result.getColumn(v);
+        }
+        return calcRange(result.getR(), n, values, result.getStatus(), result.getFailedCounts());
+    }
+
+    /**
+     * Calculate u(r), u'(r) and all energy components for a range starting at "startR" and 
+     * ending at "stopR" with interval "interval" and pass them point by point to "sink". 
+     * The points are calculated STREAM_CHUNK at a time, so the whole range is never held 
+     * in memory and stopR may be Double.POSITIVE_INFINITY. The sink can stop the stream 
+     * early by returning false, for example once u(r) has decayed below a threshold.
+     * Gives the same values as getProfile.
+     * @param startR Start value
+     * @param stopR Stop value, may be infinite
+     * @param interval Interval value
+     * @param sink Receives the points
+     * @return number of points passed to the sink
+     * @throws Exception if Bessel function fails, result has a non zero imag part or the sink fails
+     */
+    public long streamProfile(double startR, double stopR, double interval, ProfileSink sink) throws Exception {
+        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
+        if (!(interval > 0)) { throw new Exception("interval must be larger than 0"); }
+        long size = Double.isInfinite(stopR) ? Long.MAX_VALUE : (long) Math.floor((stopR - startR) / interval);
+        double[][] values = null;
+        double[] r = null;
+        long count = 0;
+        while (count < size) {
+            int n = (int) Math.min(STREAM_CHUNK, size - count);
+            if (r == null || r.length != n) {
+                r = new double[n];
+                values = new double[DEF + 1][n];
+            }
+            for (int j = 0; j < n; j++) {
+                r[j] = startR + (count + j) * interval;
+            }
+            calcRange(r, r.length, values);
+            for (int j = 0; j < n; j++) {
+                count++;
+                if (!sink.point(r[j], values[U][j], values[DU][j], values[CE][j], values[SD][j], values[ST][j], 
+                        values[MEC][j], values[DEF][j])) {
+                    return count;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Calculate u(r), u'(r) and all energy components from "startR" to "stopR" on a non uniform 
+     * grid that is fine where the values change quickly, near the inclusion, and coarse in the 
+     * exponentially decaying tail. Starting from ADAPTIVE_START equal intervals, an interval is 
+     * halved as long as the value at its midpoint differs from the straight line between its 
+     * end points by more than tol times the largest absolute value of that component, or the 
+     * change of u'(r) over it shows that u(r) is not linear enough. The straight lines between 
+     * the points are what the charts draw and what Utils.integrate(double[][]) integrates.
+     * @param startR Start value
+     * @param stopR Stop value, the last point
+     * @param tol Relative error tolerance of the linear interpolation between points
+     * @return the grid and all values
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public ProfileResult getAdaptiveProfile(double startR, double stopR, double tol) throws Exception {
+        if (!(startR < stopR)) { throw new Exception("startR must be smaller than stopR"); }
+        int n = ADAPTIVE_START + 1;
+        double[] r = new double[n];
+        fillRange(r, n, startR, (stopR - startR) / ADAPTIVE_START);
+        r[n - 1] = stopR;
+        double[][] values = new double[DEF + 1][n];
+        calcRange(r, r.length, values);
+        double minWidth = (stopR - startR) / ADAPTIVE_START / (1 << ADAPTIVE_LEVELS);
+        boolean[] refine = new boolean[n - 1];
+        Arrays.fill(refine, true);
+
+        while (true) {
+            int m = 0;
+            for (int i = 0; i < n - 1; i++) {
+                refine[i] &= r[i + 1] - r[i] > 2 * minWidth;
+                if (refine[i]) { m++; }
+            }
+            if (m == 0) { break; }
+            // Values at the midpoints of the intervals to refine, all in one batch
+            double[] rMid = new double[m];
+            for (int i = 0, j = 0; i < n - 1; i++) {
+                if (refine[i]) { rMid[j++] = 0.5 * (r[i] + r[i + 1]); }
+            }
+            double[][] mid = new double[DEF + 1][m];
+            calcRange(rMid, rMid.length, mid);
+            double[] scale = new double[DEF + 1];
+            for (int v = 0; v <= DEF; v++) {
+                for (int i = 0; i < n; i++) { scale[v] = Math.max(scale[v], Math.abs(values[v][i])); }
+                for (int j = 0; j < m; j++) { scale[v] = Math.max(scale[v], Math.abs(mid[v][j])); }
+                scale[v] *= tol;
+            }
+
+            // Merge the midpoints into the grid and mark the new intervals that need refining
+            double[] newR = new double[n + m];
+            double[][] newValues = new double[DEF + 1][n + m];
+            boolean[] newRefine = new boolean[n + m - 1];
+            int k = 0;
+            for (int i = 0, j = 0; i < n; i++) {
+                copyPoint(r, values, i, newR, newValues, k++);
+                if (i == n - 1 || !refine[i]) { continue; }
+                boolean linear = true;
+                for (int v = 0; v <= DEF; v++) {
+                    linear &= Math.abs(mid[v][j] - 0.5 * (values[v][i] + values[v][i + 1])) <= scale[v];
+                }
+                // |u''| h^2 / 8 is the linear interpolation error of u, u'' from the change of u'
+                double h = 0.5 * (r[i + 1] - r[i]);
+                newRefine[k - 1] = !linear || Math.abs(mid[DU][j] - values[DU][i]) * h / 8 > scale[U];
+                newRefine[k] = !linear || Math.abs(values[DU][i + 1] - mid[DU][j]) * h / 8 > scale[U];
+                copyPoint(rMid, mid, j++, newR, newValues, k++);
+            }
+            n = n + m;
+            r = newR;
+            values = newValues;
+            refine = newRefine;
+        }
+
+        ProfileResult profile = new ProfileResult(n);
+        System.arraycopy(r, 0, profile.getR(), 0, n);
+        for (int v = 0; v <= DEF; v++) {
+            System.arraycopy(values[v], 0, profile.getColumn(v), 0, n);
+        }
+        return profile;
+    }
+
+    /**
+     * Copy point i of r and values to point k of toR and toValues
+     */
+    private static void copyPoint(double[] r, double[][] values, int i, double[] toR, double[][] toValues, int k) {
+        toR[k] = r[i];
+        for (int v = 0; v < values.length; v++) {
+            toValues[v][k] = values[v][i];
+        }
+    }
+
+    /**
+     * @return the rate kappa at which u(r) decays, as exp(-kappa * r), the smaller of Re(k+) 
+     * and Re(k-). The energy densities decay at twice this rate.
+     */
+    public double getDecayRate() {
+        return conjugateRoots ? kp.real() : Math.min(kp.real(), kn.real());
+    }
+
+    /**
+     * @return the decay length 1 / getDecayRate() of u(r)
+     */
+    public double getDecayLength() {
+        return 1.0 / getDecayRate();
+    }
+
+    /**
+     * Calculate the distance from the inclusion symmetry axis beyond which u(r), u'(r) and the 
+     * energy densities are negligible: each of the terms A+ * K0(k+ * r) and A- * K0(k- * r) 
+     * of u(r) is below tol times the larger of the two at r0, from the decay of the terms as 
+     * exp(-Re(k) * r) (the factor 1 / sqrt(r) of K0 only makes them smaller). A range that 
+     * ends here instead of at a fixed value needs fewer points for stiff bilayers, where u(r) 
+     * decays within a fraction of a nm, and does not cut off a soft bilayer's profile. 
+     * getEnergyTails gives the energies beyond the cutoff.
+     * @param tol Relative tolerance, 0 < tol < 1
+     * @return the cutoff, at least r0
+     * @throws Exception if tol is not in (0, 1)
+     */
+    public double getCutoff(double tol) throws Exception {
+        if (!(tol > 0 && tol < 1)) { throw new Exception("tol must be between 0 and 1"); }
+        double termP = Ap.multiply(Kkpr0[0]).mod();
+        double termN = An.multiply(Kknr0[0]).mod();
+        double largest = Math.max(termP, termN);
+        if (!(largest > 0)) {
+            // u(r) = 0
+            return r0;
+        }
+        double cutoff = r0;
+        if (termP > 0) {
+            cutoff = Math.max(cutoff, r0 + Math.log(termP / (tol * largest)) / kp.real());
+        }
+        if (termN > 0) {
+            cutoff = Math.max(cutoff, r0 + Math.log(termN / (tol * largest)) / kn.real());
+        }
+        return cutoff;
+    }
+
+    /**
+     * Integrate u(r), u'(r) and all energy components from r0 to "stopR", the result is indexed 
+     * by U, DU, CE, SD, ST, MEC and DEF. The integrands are evaluated only at the nodes of a 
+     * Gauss-Legendre rule on panels that start small at r0 and grow geometrically, and of a 
+     * Gauss-Laguerre rule for the tail when stopR is infinite, about a hundred points in all 
+     * instead of a fine grid. With stopR = Double.POSITIVE_INFINITY the sum of the CE, SD 
+     * and ST integrals is getDeltaGdef_old.
+     * @param stopR End of range, may be infinite
+     * @return the integrals with error estimates
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    public Quadrature.Result getIntegrals(double stopR) throws Exception {
+        if (!(stopR >= r0)) { throw new Exception("stopR must be larger than r0"); }
+        // u(r) decays as exp(-kappa * r), the energy densities twice as fast
+        double kappa = getDecayRate();
+        double decayLength = 1.0 / kappa;
+        // A finite range is covered by panels up to stopR, an infinite one up to the tail
+        double tailStart = Double.isInfinite(stopR) ? r0 + TAIL_DECAY_LENGTHS * decayLength : stopR;
+        // Panel width is at most the distance to the singularity of K(k * r) at r = 0 and the 
+        // decay length of the slowest term, it starts at the decay length of the fastest term 
+        // and doubles from there
+        double firstWidth = PANEL_DECAY_LENGTHS / Math.max(kp.mod(), kn.mod());
+        List<Double> edges = new ArrayList<Double>();
+        double edge = r0;
+        edges.add(edge);
+        while (edge < tailStart) {
+            double width = Math.min(Math.max(firstWidth, edge - r0), PANEL_DECAY_LENGTHS * decayLength);
+            edge = Math.min(tailStart, edge + Math.min(edge, width));
+            edges.add(edge);
+        }
+        double[] edgeArray = new double[edges.size()];
+        for (int i = 0; i < edgeArray.length; i++) {
+            edgeArray[i] = edges.get(i);
+        }
+        Quadrature.Integrand integrand = new Quadrature.Integrand() {
+            public void evaluate(double[] x, double[][] y) throws Exception {
+                calcRange(x, x.length, y);
+            }
+        };
+        return Quadrature.integrate(integrand, DEF + 1, edgeArray, Double.isInfinite(stopR) ? kappa : 0.0);
+    }
+
+    /**
+     * Calculate the values selected by the non null arrays of "values" for all r, point i of 
+     * each value goes to values[value][i]. The Bessel functions are calculated once per point 
+     * for all values. If an executor is set the range is split into chunks of PARALLEL_CHUNK 
+     * points that are calculated as separate tasks, every point is calculated the same way as 
+     * in the serial case so the result does not depend on the number of threads.
+     * @param r Radical distances
+     * @param n Number of points, the first n of r are calculated
+     * @param values Arrays of at least n values indexed by U, DU, CE, SD, ST, MEC and DEF
+     * @throws Exception if Bessel function fails or result has a non zero imag part.
+     */
+    private void calcRange(double[] r, int n, double[][] values) throws Exception {
+        // No status is kept, only if a point failed the range is calculated again to find it
+        if (calcRange(r, n, values, null, null) > 0) {
+            int[] status = new int[n];
+            calcRange(r, n, values, status, null);
+            checkStatus(r, n, status);
+        }
+    }
+
+    /**
+     * Same as calcRange(r, n, values), but a point that fails gets Double.NaN values and its 
+     * STATUS_ code in status[i] instead of an exception
+     * @param status Status of each point, may be null
+     * @param counts Number of points that failed for each STATUS_ code, may be null
+     * @return number of points that failed
+     * @throws Exception if a task is interrupted
+     */
+    private int calcRange(final double[] r, int n, final double[][] values, final int[] status, int[] counts)
+            throws Exception {
+        if (counts != null) {
+            Arrays.fill(counts, 0);
+        }
+        ExecutorService executor = this.executor;
+        if (executor == null || n <= PARALLEL_CHUNK) {
+            return calcRange(r, 0, n, values, status, counts);
+        }
+        List<Future<int[]>> futures = new ArrayList<Future<int[]>>();
+        for (int start = 0; start < n; start += PARALLEL_CHUNK) {
+            final int from = start;
+            final int to = Math.min(n, start + PARALLEL_CHUNK);
+            futures.add(executor.submit(new Callable<int[]>() {
+                public int[] call() throws Exception {
+                    int[] chunkCounts = new int[STATUS_IMAG + 1];
+                    calcRange(r, from, to, values, status, chunkCounts);
+                    return chunkCounts;
+                }
+            }));
+        }
+        int failed = 0;
+        try {
+            for (Future<int[]> future : futures) {
+                int[] chunkCounts = future.get();
+                for (int code = STATUS_BESSEL; code <= STATUS_IMAG; code++) {
+                    failed += chunkCounts[code];
+                    if (counts != null) {
+                        counts[code] += chunkCounts[code];
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            for (Future<int[]> future : futures) {
+                future.cancel(false);
+            }
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
+        return failed;
+    }
+
+    /**
+     * Throw an exception for the first point of r that failed
+     * @throws Exception always
+     */
+    private static void checkStatus(double[] r, int n, int[] status) throws Exception {
+        int failed = 0;
+        int first = -1;
+        for (int i = 0; i < n; i++) {
+            if (status[i] != STATUS_OK) {
+                failed++;
+                if (first < 0) {
+                    first = i;
+                }
+            }
+        }
+        String at = " at r = " + r[first] + " (" + failed + " of " + n + " points failed)";
+        if (status[first] == STATUS_BESSEL) {
+            throw new Exception("Error while calculatin BesselK" + at);
+        }
+        throw new Exception("Warning the values have a non zero imag. part" + at);
+    }
+
+    /**
+     * @return value, if it is not Double.NaN
+     * @throws Exception if value is Double.NaN, from a non zero imag part
+     */
+    private static double checkImag(double value, String name, double r) throws Exception {
+        if (Double.isNaN(value)) { throw new Exception("Warning " + name + "(" + r + ") has a non zero imag. part"); }
+        return value;
+    }
+
+    /**
+     * Calculate the selected values for the points from (inclusive) to to (exclusive) of r, 
+     * the status of each point goes to status and the failed points are added to counts, 
+     * both may be null
+     * @return number of points that failed
+     */
+    private int calcRange(double[] r, int from, int to, double[][] values, int[] status, int[] counts)
+            throws Exception {
+        double[] rChunk = r;
+        if (from != 0 || to != r.length) {
+            rChunk = new double[to - from];
+            System.arraycopy(r, from, rChunk, 0, rChunk.length);
+        }
+        int[] ierrPos = new int[rChunk.length];
+        int[] ierrNeg = new int[rChunk.length];
+        double[][] kPosRange = getBesselKforRange(kp, kpTable, rChunk, ierrPos);
+        double[][] kNegRange = getBesselKnegForRange(rChunk, kPosRange, ierrNeg);
+        boolean needU = values[U] != null || values[CE] != null || values[DEF] != null;
+        boolean needEnergy = values[CE] != null || values[SD] != null || values[ST] != null || values[MEC] != null || values[DEF] != null;
+        int failed = 0;
+        for (int j = 0; j < rChunk.length; j++) {
+            int i = from + j;
+            double x = rChunk[j];
+            // With a failed Bessel function the values are NaN
+            double u = needU ? calcU(x, kPosRange, kNegRange, j) : 0.0;
+            double du = values[DU] != null ? calcdU(x, kPosRange, kNegRange, j) : 0.0;
+            double ce = 0.0;
+            double sd = 0.0;
+            double st = 0.0;
+            double mec = 0.0;
+            if (needEnergy) {
+                ce = calcDeltaGce(x, u);
+                sd = values[SD] != null || values[DEF] != null ? calcDeltaGsd(x, kPosRange, kNegRange, j) : 0.0;
+                st = values[ST] != null || values[DEF] != null ? calcDeltaGst(x, kPosRange, kNegRange, j) : 0.0;
+                mec = values[MEC] != null || values[DEF] != null ? calcDeltaGmec(x, kPosRange, kNegRange, j) : 0.0;
+            }
+            double def = ce + sd + st + mec;
+            int pointStatus = STATUS_OK;
+            if (ierrPos[j] != 0 || ierrNeg[j] != 0) {
+                pointStatus = STATUS_BESSEL;
+            } else if (Double.isNaN(u + du + def)) {
+                pointStatus = STATUS_IMAG;
+            }
+            if (status != null) {
+                status[i] = pointStatus;
+            }
+            if (pointStatus != STATUS_OK) {
+                failed++;
+                if (counts != null) {
+                    counts[pointStatus]++;
+                }
+                u = du = ce = sd = st = mec = def = Double.NaN;
+            }
+            if (values[U] != null) { values[U][i] = u; }
+            if (values[DU] != null) { values[DU][i] = du; }
+            if (values[CE] != null) { values[CE][i] = ce; }
+            if (values[SD] != null) { values[SD][i] = sd; }
+            if (values[ST] != null) { values[ST][i] = st; }
+            if (values[MEC] != null) { values[MEC][i] = mec; }
+            if (values[DEF] != null) { values[DEF][i] = def; }
+        }
+        return failed;
+    }
+
+    /**
+     * Calculate the ranges on the given executor, for example ForkJoinPool.commonPool(), 
+     * or serially in the calling thread if executor is null. The results are the same.
+     * @param executor Executor for the range calculations, may be null
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @return the executor used for the range calculations, null if they are serial
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Number of points in a range starting at "startR" and ending at "stopR" with interval "interval"
+     * @throws Exception if startR > stopR
+     */
+    private static int rangeSize(double startR, double stopR, double interval) throws Exception {
+        if (startR > stopR) { throw new Exception("startR must be smaller than stopR"); }
+        return (int) Math.floor((stopR - startR) / interval);
+    }
+
+    /**
+     * Fill the first n values of x with startR + i * interval, each point is independent of the previous one so 
+     * rounding errors do not add up over the range
+     */
+    private static void fillRange(double[] x, int n, double startR, double interval) {
+        for (int i = 0; i < n; i++) {
+            x[i] = startR + i * interval;
+        }
+    }
+
+    /**
+     * Set up a [x, y] array for a range starting at "startR" and ending at "stopR" with 
+     * interval "interval", the x values are filled in
+     * @throws Exception if startR > stopR
+     */
+    private double[][] newRangeArray(double startR, double stopR, double interval) throws Exception {
+        double[][] retArray = new double[2][rangeSize(startR, stopR, interval)];
+        fillRange(retArray[0], retArray[0].length, startR, interval);
+        return retArray;
+    }
+
+    /**
+     * Use interpolation tables for K(k+ * r) and K(k- * r) on [r0, stopR], after this
+     * call u(r), u'(r) and the energy components for r in this range are calculated from 
+     * a Chebyshev polynomial instead of the Bessel function.
+     * @param stopR End of range
+     * @param tol Relative error tolerance of the Bessel values
+     * @return bound of the relative error of the Bessel values on [r0, stopR], see
+     * BesselkRayTable
+     * @throws Exception if Bessel function fails or the tolerance can not be met
+     */
+    public double useInterpolation(double stopR, double tol) throws Exception {
+        kpTable = new BesselkRayTable(kp.real(), kp.imag(), r0, stopR, tol);
+        knTable = conjugateRoots ? null : new BesselkRayTable(kn.real(), kn.imag(), r0, stopR, tol);
+        return Math.max(kpTable.getErrorBound(), knTable == null ? 0.0 : knTable.getErrorBound());
+    }
+
+    /**
+     * Stop using the interpolation tables set up by useInterpolation
+     */
+    public void clearInterpolation() {
+        kpTable = null;
+        knTable = null;
+    }
+
+    /**
+     * Calculate K0(k * r) and K1(k * r), from the table if it covers r
+     * @param k k+ or k-
+     * @param table Interpolation table for k, may be null
+     * @param r Radical distance from inclusion symmetry axis
+     * @return a one point array of [real order 0, img order 0, real order 1, img order 1] values
+     * @throws Exception if Bessel function fails
+     */
+    private static double[][] getBesselK(Complex k, BesselkRayTable table, double r) throws Exception {
+        double[] array = new double[5];
+        if (table != null && table.contains(r)) {
+            table.besselk(r, array);
+        } else {
+            double zreal = k.real() * r;
+            double zimg = k.imag() * r;
+            Besselk.besselk(zreal, zimg, array);
+            if (array[4] != 0.0d) {
+                throw new Exception("Error while calculatin BesselK for " + new Complex(zreal, zimg) + ", error code " + array[4]);
+            }
+        }
+        return new double[][] { { array[0] }, { array[1] }, { array[2] }, { array[3] } };
+    }
+
+    /**
+     * Calculate K0(k * r) and K1(k * r) for all r in one batch call, or from the table if
+     * it covers all r
+     * @param k k+ or k-
+     * @param table Interpolation table for k, may be null
+     * @param r Radical distances
+     * @param ierr Filled with the error code of each point, the values of a point with a non 
+     * zero code are Double.NaN
+     * @return an array of [real order 0, img order 0, real order 1, img order 1] values
+     */
+    private static double[][] getBesselKforRange(Complex k, BesselkRayTable table, double[] r, int[] ierr) {
+        int n = r.length;
+        if (table != null && n > 0 && table.contains(r[0]) && table.contains(r[n - 1])) {
+            double[][] retArray = new double[4][n];
+            double[] array = new double[5];
+            for (int i = 0; i < n; i++) {
+                table.besselk(r[i], array);
+                retArray[0][i] = array[0];
+                retArray[1][i] = array[1];
+                retArray[2][i] = array[2];
+                retArray[3][i] = array[3];
+            }
+            return retArray;
+        }
+        double[] zreal = new double[n];
+        double[] zimg = new double[n];
+        for (int i = 0; i < n; i++) {
+            zreal[i] = k.real() * r[i];
+            zimg[i] = k.imag() * r[i];
+        }
+        double[][] retArray = new double[4][n];
+        Besselk.besselkBatch(zreal, zimg, n, retArray[0], retArray[1], retArray[2], retArray[3], ierr);
+        for (int i = 0; i < n; i++) {
+            if (ierr[i] != 0) {
+                retArray[0][i] = retArray[1][i] = retArray[2][i] = retArray[3][i] = Double.NaN;
+            }
+        }
+        return retArray;
+    }
+
+    /**
+     * Calculate K0(k- * r) and K1(k- * r) as one point array, see getBesselKneg
+     * @param r Radical distance from inclusion symmetry axis
+     * @param kPos getBesselK(kp, kpTable, r)
+     * @return a one point array of [real order 0, img order 0, real order 1, img order 1] values
+     * @throws Exception if Bessel function fails
+     */
+    private double[][] getBesselKneg(double r, double[][] kPos) throws Exception {
+        if (!conjugateRoots) {
+            return getBesselK(kn, knTable, r);
+        }
+        return getBesselKnegForRange(new double[] { r }, kPos, new int[1]);
+    }
+
+    /**
+     * Range version of getBesselKneg
+     * @param r Radical distances
+     * @param kPosRange getBesselKforRange(kp, r)
+     * @param ierr Filled with the error code of each point if K(k- * r) is calculated, the 
+     * conjugate of a failed K(k+ * r) is Double.NaN as well
+     * @return an array of [real order 0, img order 0, real order 1, img order 1] values
+     */
+    private double[][] getBesselKnegForRange(double[] r, double[][] kPosRange, int[] ierr) {
+        if (!conjugateRoots) {
+            return getBesselKforRange(kn, knTable, r, ierr);
+        }
+        double[][] retArray = new double[4][r.length];
+        for (int i = 0; i < r.length; i++) {
+            retArray[0][i] = kPosRange[0][i];
+            retArray[1][i] = -kPosRange[1][i];
+            retArray[2][i] = kPosRange[2][i];
+            retArray[3][i] = -kPosRange[3][i];
+        }
+        return retArray;
+    }
+
+    /**
+     * Calclate deltaG_MEC (Monolayer equilibrium curvature), formula $(7)
+     * Get the c0 dependent term of the deformation free energy
+     * @return Returns the deltaGmec.
+     */
+    public double getDeltaGmec() {
+    	// Eq. $(7) 
+		double deltaGmec = (2 *  Math.PI * kc * c0 * r0 * s) / changeParams; 
+		return deltaGmec;
+    }
+    
+    /**
+     * Calclate deltaG_GC (Gaussian curvature), formula $(A1) 
+     * @return Returns the deltaGgc.
+     */
+    public double getDeltaGgc() {
+    	// Eq. $(A1), Note that kg is the Mean splay-distortion modulus
+    	// and kg/kc is extimated to be less than 0.05 ($ see appendix)
+		double deltaGgc = ((Math.PI / 2) * kg * (s * s / (1 + (s * s)))) / changeParams; 
+		return deltaGgc;
+    }
+    
+    /**
+     * Calculate the integral of deltaGce(r) from r0 to infinity in closed form from the 
+     * Bessel values at r0, see lommelK0 
+     * @return the compression-expansion energy
+     * @throws Exception if the result has a non zero imag part.
+     */
+    public double getDeltaGceTotal() throws Exception {
+        // Formula #(16a), u^2 = sum over j and l of Aj * Al * K0(kj * r) * K0(kl * r)
+        Complex[] A = { Ap, An };
+        Complex res = sumOfProducts(A, true, r0, Kkpr0, Kknr0).multiply((Math.PI * 4 * ka) / (d0 * d0));
+        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGce total has a non zero imag. part of = " + res.imag()); }
+        return res.real() / changeParams;
+    }
+
+    /**
+     * Calculate the integral of deltaGsd(r) from r0 to infinity in closed form from the 
+     * Bessel values at r0, see lommelK0 
+     * @return the splay-distortion energy
+     * @throws Exception if the result has a non zero imag part.
+     */
+    public double getDeltaGsdTotal() throws Exception {
+        // Formula #(16b), terms kj^2 * Aj * K0(kj * r)
+        Complex[] A = { kp2.multiply(Ap), kn2.multiply(An) };
+        Complex res = sumOfProducts(A, true, r0, Kkpr0, Kknr0).multiply(Math.PI * kc);
+        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGsd total has a non zero imag. part of = " + res.imag()); }
+        return res.real() / changeParams;
+    }
+
+    /**
+     * Calculate the integral of deltaGst(r) from r0 to infinity in closed form from the 
+     * Bessel values at r0, see lommelK1 
+     * @return the surface tension energy
+     * @throws Exception if the result has a non zero imag part.
+     */
+    public double getDeltaGstTotal() throws Exception {
+        // Formula #(16c), terms kj * Aj * K1(kj * r)
+        Complex[] A = { kp.multiply(Ap), kn.multiply(An) };
+        Complex res = sumOfProducts(A, false, r0, Kkpr0, Kknr0).multiply(Math.PI * alpha);
+        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGst total has a non zero imag. part of = " + res.imag()); }
+        return res.real() / changeParams;
+    }
+
+    /**
+     * Calculate the integral of deltaGmec(r) from r0 to infinity in closed form, with 
+     * r K0(k r) = -d/dr (r K1(k r)) / k. Same as getDeltaGmec() as u'(r0) = s.
+     * @return the c0 dependent energy
+     * @throws Exception if the result has a non zero imag part.
+     */
+    public double getDeltaGmecTotal() throws Exception {
+        // Formula $(7), sum of kj^2 * Aj * r0 * K1(kj * r0) / kj
+        Complex temp = (kp.multiply(Ap).multiply(Kkpr0[1])).add(kn.multiply(An).multiply(Kknr0[1]));
+        Complex res = temp.multiply(-2 * Math.PI * kc * c0 * r0);
+        if (Math.abs(res.imag()) > imagErrorThreshold) { throw new Exception("Warning deltaGmec total has a non zero imag. part of = " + res.imag()); }
+        return res.real() / changeParams;
+    }
+
+    /**
+     * Calculate the integrals of deltaGce(r), deltaGsd(r), deltaGst(r), deltaGmec(r) and 
+     * deltaGdef(r) from "fromR" to infinity in closed form, like getDeltaGceTotal etc. but 
+     * from the Bessel values at fromR. This is the exact contribution of the exponential tail 
+     * that a profile or integral truncated at fromR, for example at getCutoff(tol), leaves out.
+     * The result is indexed by CE, SD, ST, MEC and DEF like getIntegrals, DU is -u(fromR) and 
+     * U is not calculated (Double.NaN).
+     * @param fromR Start of the tail, at least r0
+     * @return the tail integrals
+     * @throws Exception if Bessel function fails or a result has a non zero imag part.
+     */
+    public double[] getEnergyTails(double fromR) throws Exception {
+        if (!(fromR >= r0)) { throw new Exception("fromR must be larger than r0"); }
+        Complex[] KpR = Besselk.getBesselK(kp.multiply(fromR));
+        Complex[] KnR;
+        if (conjugateRoots) {
+            KnR = new Complex[] { KpR[0].conjugate(), KpR[1].conjugate() };
+        } else {
+            KnR = Besselk.getBesselK(kn.multiply(fromR));
+        }
+        Complex[] res = new Complex[DEF + 1];
+        // u(R) and the sums of the getDelta...Total methods at R
+        res[DU] = Ap.multiply(KpR[0]).add(An.multiply(KnR[0])).multiply(-1);
+        Complex[] A = { Ap, An };
+        res[CE] = sumOfProducts(A, true, fromR, KpR, KnR).multiply((Math.PI * 4 * ka) / (d0 * d0));
+        A = new Complex[] { kp2.multiply(Ap), kn2.multiply(An) };
+        res[SD] = sumOfProducts(A, true, fromR, KpR, KnR).multiply(Math.PI * kc);
+        A = new Complex[] { kp.multiply(Ap), kn.multiply(An) };
+        res[ST] = sumOfProducts(A, false, fromR, KpR, KnR).multiply(Math.PI * alpha);
+        res[MEC] = (kp.multiply(Ap).multiply(KpR[1])).add(kn.multiply(An).multiply(KnR[1])).multiply(-2 * Math.PI * kc * c0 * fromR);
+        double[] tails = new double[DEF + 1];
+        tails[U] = Double.NaN;
+        for (int v = DU; v <= MEC; v++) {
+            if (Math.abs(res[v].imag()) > imagErrorThreshold) { throw new Exception("Warning the tail from " + fromR + " has a non zero imag. part of = " + res[v].imag()); }
+            tails[v] = v == DU ? res[v].real() : res[v].real() / changeParams;
+        }
+        tails[DEF] = tails[CE] + tails[SD] + tails[ST] + tails[MEC];
+        return tails;
+    }
+
+    /**
+     * Sum over j and l in {+, -} of cj * cl * integral of r * Kv(kj * r) * Kv(kl * r) from R 
+     * to infinity
+     * @param c Coefficients c+ and c-
+     * @param order0 true for v = 0 and false for v = 1
+     * @param R Start of the integrals
+     * @param KpR K0(k+ * R) and K1(k+ * R)
+     * @param KnR K0(k- * R) and K1(k- * R)
+     */
+    private Complex sumOfProducts(Complex[] c, boolean order0, double R, Complex[] KpR, Complex[] KnR) {
+        Complex[] k = { kp, kn };
+        Complex[][] K = { KpR, KnR };
+        Complex sum = Complex.ZERO;
+        for (int j = 0; j < 2; j++) {
+            for (int l = 0; l < 2; l++) {
+                Complex integral = order0 ? lommelK0(k[j], K[j], k[l], K[l], j == l, R) : lommelK1(k[j], K[j], k[l], K[l], j == l, R);
+                sum = sum.add(c[j].multiply(c[l]).multiply(integral));
+            }
+        }
+        return sum;
+    }
+
+    /**
+     * Integral of r * K0(a * r) * K0(b * r) from R to infinity (Re a, Re b > 0). From the 
+     * Bessel equation (r f')' = a^2 r f for f = K0(a * r), the integrand is 
+     * d/dr [r (f' g - f g')] / (a^2 - b^2) with g = K0(b * r), and for a = b the integral of 
+     * x K0(x)^2 is x^2 (K0(x)^2 - K1(x)^2) / 2.
+     * @param Ka K0(a * R) and K1(a * R)
+     * @param Kb K0(b * R) and K1(b * R)
+     * @param same a = b
+     */
+    private static Complex lommelK0(Complex a, Complex[] Ka, Complex b, Complex[] Kb, boolean same, double R) {
+        if (same) {
+            return (Ka[1].multiply(Ka[1])).subtract(Ka[0].multiply(Ka[0])).multiply(R * R / 2);
+        }
+        Complex temp = (a.multiply(Ka[1]).multiply(Kb[0])).subtract(b.multiply(Ka[0]).multiply(Kb[1]));
+        return temp.multiply(R).divide((a.multiply(a)).subtract(b.multiply(b)));
+    }
+
+    /**
+     * Integral of r * K1(a * r) * K1(b * r) from R to infinity (Re a, Re b > 0), as lommelK0 
+     * with K1'(x) = -K0(x) - K1(x) / x, and for a = b the integral of x K1(x)^2 is 
+     * x^2 (K1(x)^2 - K0(x) K2(x)) / 2 with K2(x) = K0(x) + 2 K1(x) / x.
+     * @param Ka K0(a * R) and K1(a * R)
+     * @param Kb K0(b * R) and K1(b * R)
+     * @param same a = b
+     */
+    private static Complex lommelK1(Complex a, Complex[] Ka, Complex b, Complex[] Kb, boolean same, double R) {
+        if (same) {
+            Complex temp = (Ka[0].multiply(Ka[0])).subtract(Ka[1].multiply(Ka[1]));
+            temp = temp.add(Ka[0].multiply(Ka[1]).multiply(2).divide(a.multiply(R)));
+            return temp.multiply(R * R / 2);
+        }
+        Complex temp = (a.multiply(Ka[0]).multiply(Kb[1])).subtract(b.multiply(Ka[1]).multiply(Kb[0]));
+        return temp.multiply(R).divide((a.multiply(a)).subtract(b.multiply(b)));
+    }
+
+    /**
+     * Get the deformation free energy
+     * Node: this is only the CE, SD and ST parts (the one that depend on u(r))
+     *       missing the MEC and GC
+     * @return Returns the deltaGdef_old.
+     */
+    public double getDeltaGdef_old() {
+    	// change
+        return deltaGdef_old;
+    }
+    
+    /**
+     * Get the total deformation free energy
+     * @return Returns the deltaGdef.
+     */
+    public double getDeltaGdef() {
+        return getDeltaGdef_old() + getDeltaGmec() + getDeltaGgc();
+    }
+
+    /**
+     * Get the total deformation free energy for other values of u0, s and c0 with the same 
+     * r0 and material constants, from the quadratic form a1 * u0^2 + a2 * s * u0 + a3 * s^2 
+     * and the MEC and GC terms. No Bessel functions are calculated, so this is as cheap as 
+     * the simplified treatment. Gives the same value as getDeltaGdef() of a new Curvature 
+     * with these u0, s and c0, up to rounding.
+     * @param u0
+     * @param s
+     * @param c0
+     * @return Returns the deltaGdef.
+     * @throws Exception if the free energy has a non zero imag. part
+     */
+    public double getDeltaGdef(double u0, double s, double c0) throws Exception {
+        double res = calcDeltaGdef(u0, s, c0);
+        if (Double.isNaN(res)) {
+            double resIm = a1Im * (u0 * u0) + a2Im * (s * u0) + a3Im * (s * s);
+            throw new Exception("Error the free energy has a non zero imag. part of = " + resIm);
+        }
+        return res;
+    }
+
+    /**
+     * Same as getDeltaGdef(u0, s, c0), but Double.NaN instead of an exception if the free 
+     * energy has a non zero imag. part, for use inside an optimizer loop
+     */
+    double calcDeltaGdef(double u0, double s, double c0) {
+        double resIm = a1Im * (u0 * u0) + a2Im * (s * u0) + a3Im * (s * s);
+        if (Math.abs(resIm) > imagErrorThreshold) { return Double.NaN; }
+        return calcDeltaGdef(a1Re, a2Re, a3Re, u0, s, c0, r0, kc, kg);
+    }
+
+    /**
+     * deltaGdef of the quadratic form a1 * u0^2 + a2 * s * u0 + a3 * s^2 with the MEC and 
+     * GC terms of r0, kc and kg
+     */
+    static double calcDeltaGdef(double a1, double a2, double a3, double u0, double s, double c0, double r0, double kc,
+            double kg) {
+        double res = a1 * (u0 * u0) + a2 * (s * u0) + a3 * (s * s);
+        // Eq. $(7) and $(A1)
+        res += 2 * Math.PI * kc * c0 * r0 * s;
+        res += (Math.PI / 2) * kg * (s * s / (1 + (s * s)));
+        return res / changeParams;
+    }
+
+    /**
+     * Calculate Smin, the s that minimizes getDeltaGdef(u0, s, c0). Without the GC term 
+     * the energy is quadratic in s and Smin = -(a2 * u0 + 2 * pi * kc * r0 * c0) / (2 * a3) 
+     * as in the simplified treatment, this is refined with Newton's method for the GC term.
+     * @param u0
+     * @param c0
+     * @return Smin, or Double.NaN if the energy is not convex in s (a3 too small compared 
+     * to kg) or Newton's method does not converge
+     * @throws Exception if the quadratic form has a non zero imag. part
+     */
+    public double getSmin(double u0, double c0) throws Exception {
+        return calcSmin(getA2(), getA3(), u0, c0, r0, kc, kg);
+    }
+
+    /**
+     * Smin of the quadratic form with coefficients a2 and a3 and the MEC and GC terms of 
+     * r0, kc and kg, see getSmin
+     */
+    static double calcSmin(double a2, double a3, double u0, double c0, double r0, double kc, double kg) {
+        // The second derivative of the GC term is at least -pi * kg / 4 (at s = 1) for kg > 0
+        // and pi * kg (at s = 0) for kg < 0
+        if (!(2 * a3 > Math.PI * Math.max(kg / 4, -kg))) {
+            return Double.NaN;
+        }
+        double b = a2 * u0 + 2 * Math.PI * kc * r0 * c0;
+        double smin = -b / (2 * a3);
+        for (int i = 0; i < SMIN_ITERATIONS; i++) {
+            double s2 = 1 + smin * smin;
+            double f = b + 2 * a3 * smin + Math.PI * kg * smin / (s2 * s2);
+            double df = 2 * a3 + Math.PI * kg * (1 - 3 * smin * smin) / (s2 * s2 * s2);
+            double step = f / df;
+            smin -= step;
+            if (Math.abs(step) <= 1.0E-15 * Math.max(1.0, Math.abs(smin))) {
+                return smin;
+            }
+        }
+        return Double.NaN;
+    }
+
+    /**
+     * Get a1, the u0^2 coefficient of deltaGdef_old * changeParams
+     * @return Returns the a1 real part.
+     * @throws Exception if a1 has a non zero imag. part
+     */
+    public double getA1() throws Exception {
+        if (Math.abs(a1Im) > imagErrorThreshold) { throw new Exception("Warning a1 has a non zero imag. part of = " + a1Im); }
+        return a1Re;
+    }
+
+    /**
+     * Get a2, the s * u0 coefficient of deltaGdef_old * changeParams
+     * @return Returns the a2 real part.
+     * @throws Exception if a2 has a non zero imag. part
+     */
+    public double getA2() throws Exception {
+        if (Math.abs(a2Im) > imagErrorThreshold) { throw new Exception("Warning a2 has a non zero imag. part of = " + a2Im); }
+        return a2Re;
+    }
+
+    /**
+     * Get a3, the s^2 coefficient of deltaGdef_old * changeParams
+     * @return Returns the a3 real part.
+     * @throws Exception if a3 has a non zero imag. part
+     */
+    public double getA3() throws Exception {
+        if (Math.abs(a3Im) > imagErrorThreshold) { throw new Exception("Warning a3 has a non zero imag. part of = " + a3Im); }
+        return a3Re;
+    }
+
+    /**
+     * Get Hb, the energy at Smin without the GC term is Hb * u0^2 + Hx * u0 * c0 + Hc * c0^2
+     * as in eq. (17)$ of the simplified treatment
+     * @return Returns the Hb.
+     * @throws Exception if the quadratic form has a non zero imag. part
+     */
+    public double getHb() throws Exception {
+        // a1 - a2^2 / (4 * a3)
+        return (getA1() - getA2() * getA2() / (4 * getA3())) / changeParams;
+    }
+
+    /**
+     * Get Hx, see getHb
+     * @return Returns the Hx.
+     * @throws Exception if the quadratic form has a non zero imag. part
+     */
+    public double getHx() throws Exception {
+        // - a2 * pi * Kc * r0 / a3
+        return -getA2() * Math.PI * kc * r0 / getA3() / changeParams;
+    }
+
+    /**
+     * Get Hc, see getHb
+     * @return Returns the Hc.
+     * @throws Exception if the quadratic form has a non zero imag. part
+     */
+    public double getHc() throws Exception {
+        // - (pi * Kc * r0)^2 / a3
+        double fact = Math.PI * kc * r0;
+        return -fact * fact / getA3() / changeParams;
+    }
+
+}
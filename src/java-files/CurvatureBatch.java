@@ -0,0 +1,347 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import edu.oa.curvature.bessel.Besselk;
+import edu.oa.curvature.utils.Resources;
+
+/**
+ * Calculates the deformation free energy of many parameter sets (d0, u0, r0, ka, kc, kg,
+ * alpha, s, c0) at once, for sweeps and Monte Carlo runs where a Curvature per set would
+ * cost most of its time in object creation. The parameters are passed as columns, one
+ * array per parameter, and k+, k-, A+, A- and the energies are calculated in loops over
+ * primitive arrays, with all Bessel values K(k+ * r0) and K(k- * r0) of the batch in a
+ * single Besselk.besselkBatch call.
+ *
+ * The complex arithmetic is done in the same order as in Material, MaterialBoundary and
+ * Curvature (JSci.maths.Complex), so the results are the same bit for bit as
+ * getDeltaGdef_old, getDeltaGmec, getDeltaGgc and getDeltaGdef of a Curvature with the
+ * same parameters and Bessel backend.
+ *
+ * A set that fails is not reported with an exception, its values are Double.NaN and its
+ * status is Curvature.STATUS_BESSEL or Curvature.STATUS_IMAG, as in Curvature.calcProfile.
+ * The output and work columns are reused by the next calculate call if they are large
+ * enough, so they can be longer than size(), only the first size() values of the arrays
+ * returned by getStatus and the getDeltaG... methods are part of the result. The arrays
+ * are shared with this object and overwritten by the next calculate call. An instance
+ * must not be used by several threads at once.
+ */
+public class CurvatureBatch {
+
+    private final double imagErrorThreshold = Resources.getDouble(Resources.IMAGERRORTHRESHOLD);
+
+    private int size;
+    private int failedCount;
+    // Results
+    private double[] deltaGdef_old = new double[0];
+    private double[] deltaGmec = new double[0];
+    private double[] deltaGgc = new double[0];
+    private double[] deltaGdef = new double[0];
+    private int[] status = new int[0];
+    // k+, k-, k+^2 and k-^2 of each set, Formula #(9)
+    private double[] kpRe = new double[0], kpIm = new double[0];
+    private double[] knRe = new double[0], knIm = new double[0];
+    private double[] kp2Re = new double[0], kp2Im = new double[0];
+    private double[] kn2Re = new double[0], kn2Im = new double[0];
+    private double[] gamma = new double[0];
+    // Index of K(k- * r0) in the Bessel columns, -1 if it is the conjugate of K(k+ * r0)
+    private int[] knIndex = new int[0];
+    // Bessel arguments and values, K(k+ * r0) of set i at i, K(k- * r0) after the n sets
+    private double[] zRe = new double[0], zIm = new double[0];
+    private double[] k0Re = new double[0], k0Im = new double[0];
+    private double[] k1Re = new double[0], k1Im = new double[0];
+    private int[] ierr = new int[0];
+    // Result of divide
+    private double quotRe, quotIm;
+
+    /**
+     * Calculate the deformation free energy of the first n parameter sets, set i is
+     * (d0[i], u0[i], r0[i], ka[i], kc[i], kg[i], alpha[i], s[i], c0[i]) as in the
+     * Curvature constructor. The results are read with the get... methods, at index 0 to
+     * n - 1 of their arrays.
+     * @param d0
+     * @param u0
+     * @param r0
+     * @param ka
+     * @param kc
+     * @param kg
+     * @param alpha
+     * @param s
+     * @param c0
+     * @param n Number of parameter sets
+     * @return number of sets that failed, also getFailedCount()
+     */
+    public int calculate(double[] d0, double[] u0, double[] r0, double[] ka, double[] kc, double[] kg, double[] alpha,
+            double[] s, double[] c0, int n) {
+        resize(n);
+
+        // k+ and k- , Formulas #(7) and #(9), see Material
+        int m = n;
+        for (int i = 0; i < n; i++) {
+            double g = alpha[i] / kc[i];
+            double beta = (4 * ka[i]) / (d0[i] * d0[i] * kc[i]);
+            gamma[i] = g;
+            // temp = sqrt(gamma^2 - 4 * beta)
+            double x = (g * g) - (4 * beta);
+            double tempMod = Math.sqrt(mod(x, 0.0));
+            double tempArg = Math.atan2(0.0, x) / 2.0;
+            double tempRe = tempMod * Math.cos(tempArg);
+            double tempIm = tempMod * Math.sin(tempArg);
+            double p2Re = (g + tempRe) / 2;
+            double p2Im = (0.0 + tempIm) / 2;
+            double pMod = Math.sqrt(mod(p2Re, p2Im));
+            double pArg = Math.atan2(p2Im, p2Re) / 2.0;
+            kp2Re[i] = p2Re;
+            kp2Im[i] = p2Im;
+            kpRe[i] = pMod * Math.cos(pArg);
+            kpIm[i] = pMod * Math.sin(pArg);
+            zRe[i] = kpRe[i] * r0[i];
+            zIm[i] = kpIm[i] * r0[i];
+            if ((g * g) < (4 * beta)) {
+                // K(k- * r0) is the conjugate of K(k+ * r0)
+                kn2Re[i] = p2Re;
+                kn2Im[i] = -p2Im;
+                knRe[i] = kpRe[i];
+                knIm[i] = -kpIm[i];
+                knIndex[i] = -1;
+            } else {
+                double n2Re = (g - tempRe) / 2;
+                double n2Im = (0.0 - tempIm) / 2;
+                double nMod = Math.sqrt(mod(n2Re, n2Im));
+                double nArg = Math.atan2(n2Im, n2Re) / 2.0;
+                kn2Re[i] = n2Re;
+                kn2Im[i] = n2Im;
+                knRe[i] = nMod * Math.cos(nArg);
+                knIm[i] = nMod * Math.sin(nArg);
+                zRe[m] = knRe[i] * r0[i];
+                zIm[m] = knIm[i] * r0[i];
+                knIndex[i] = m++;
+            }
+        }
+
+        // All Bessel values of the batch in one call
+        Besselk.besselkBatch(zRe, zIm, m, k0Re, k0Im, k1Re, k1Im, ierr);
+
+        // A+ and A- , Formulas #(12a) and #(12b), and the energy, Formula #(13)
+        int failed = 0;
+        for (int i = 0; i < n; i++) {
+            int j = knIndex[i];
+            if (ierr[i] != 0 || (j >= 0 && ierr[j] != 0)) {
+                failed += fail(i, Curvature.STATUS_BESSEL);
+                continue;
+            }
+            // K0(k+ * r0), K1(k+ * r0), K0(k- * r0) and K1(k- * r0)
+            double p0Re = k0Re[i], p0Im = k0Im[i], p1Re = k1Re[i], p1Im = k1Im[i];
+            double n0Re, n0Im, n1Re, n1Im;
+            if (j < 0) {
+                n0Re = p0Re;
+                n0Im = -p0Im;
+                n1Re = p1Re;
+                n1Im = -p1Im;
+            } else {
+                n0Re = k0Re[j];
+                n0Im = k0Im[j];
+                n1Re = k1Re[j];
+                n1Im = k1Im[j];
+            }
+            double pRe = kpRe[i], pIm = kpIm[i], nRe = knRe[i], nIm = knIm[i];
+            double u = u0[i];
+            double si = s[i];
+
+            // div = k- * (K0(k+ * r0) * K1(k- * r0)) - k+ * (K0(k- * r0) * K1(k+ * r0))
+            double tRe = p0Re * n1Re - p0Im * n1Im;
+            double tIm = p0Re * n1Im + p0Im * n1Re;
+            double divRe = nRe * tRe - nIm * tIm;
+            double divIm = nRe * tIm + nIm * tRe;
+            tRe = n0Re * p1Re - n0Im * p1Im;
+            tIm = n0Re * p1Im + n0Im * p1Re;
+            divRe -= pRe * tRe - pIm * tIm;
+            divIm -= pRe * tIm + pIm * tRe;
+
+            // A+ = (k- * (K1(k- * r0) * u0) + K0(k- * r0) * s) / div
+            double aRe = u * n1Re, aIm = u * n1Im;
+            divide((nRe * aRe - nIm * aIm) + (si * n0Re), (nRe * aIm + nIm * aRe) + (si * n0Im), divRe, divIm);
+            double apRe = quotRe, apIm = quotIm;
+            // A- = (k+ * (K1(k+ * r0) * -u0) - K0(k+ * r0) * s) / div
+            aRe = -u * p1Re;
+            aIm = -u * p1Im;
+            divide((pRe * aRe - pIm * aIm) - (si * p0Re), (pRe * aIm + pIm * aRe) - (si * p0Im), divRe, divIm);
+            double anRe = quotRe, anIm = quotIm;
+
+            // (A+ * k+^2 * K0(k+ * r0) + A- * k-^2 * K0(k- * r0)) * s
+            double p2Re = kp2Re[i], p2Im = kp2Im[i], n2Re = kn2Re[i], n2Im = kn2Im[i];
+            double xRe = apRe * p2Re - apIm * p2Im, xIm = apRe * p2Im + apIm * p2Re;
+            double yRe = xRe * p0Re - xIm * p0Im, yIm = xRe * p0Im + xIm * p0Re;
+            xRe = anRe * n2Re - anIm * n2Im;
+            xIm = anRe * n2Im + anIm * n2Re;
+            double wRe = xRe * n0Re - xIm * n0Im, wIm = xRe * n0Im + xIm * n0Re;
+            double resRe = si * (yRe + wRe), resIm = si * (yIm + wIm);
+            // + (A+ * (k+ * k+^2) * K1(k+ * r0) + A- * (k- * k-^2) * K1(k- * r0)) * u0
+            double k3Re = pRe * p2Re - pIm * p2Im, k3Im = pRe * p2Im + pIm * p2Re;
+            xRe = apRe * k3Re - apIm * k3Im;
+            xIm = apRe * k3Im + apIm * k3Re;
+            yRe = xRe * p1Re - xIm * p1Im;
+            yIm = xRe * p1Im + xIm * p1Re;
+            k3Re = nRe * n2Re - nIm * n2Im;
+            k3Im = nRe * n2Im + nIm * n2Re;
+            xRe = anRe * k3Re - anIm * k3Im;
+            xIm = anRe * k3Im + anIm * k3Re;
+            wRe = xRe * n1Re - xIm * n1Im;
+            wIm = xRe * n1Im + xIm * n1Re;
+            resRe += u * (yRe + wRe);
+            resIm += u * (yIm + wIm);
+            // + gamma * u0 * s, times -pi * r0 * kc
+            resRe += gamma[i] * u * si;
+            double fact = -Math.PI * r0[i] * kc[i];
+            resRe = fact * resRe;
+            resIm = fact * resIm;
+            if (Math.abs(resIm) > imagErrorThreshold) {
+                failed += fail(i, Curvature.STATUS_IMAG);
+                continue;
+            }
+
+            deltaGdef_old[i] = resRe / Curvature.changeParams;
+            // Eq. $(7) and $(A1), see Curvature.getDeltaGmec and getDeltaGgc
+            deltaGmec[i] = (2 * Math.PI * kc[i] * c0[i] * r0[i] * si) / Curvature.changeParams;
+            deltaGgc[i] = ((Math.PI / 2) * kg[i] * (si * si / (1 + (si * si)))) / Curvature.changeParams;
+            deltaGdef[i] = deltaGdef_old[i] + deltaGmec[i] + deltaGgc[i];
+            status[i] = Curvature.STATUS_OK;
+        }
+        failedCount = failed;
+        return failed;
+    }
+
+    /**
+     * Make room for n sets, the columns are only reallocated if they are too small
+     */
+    private void resize(int n) {
+        if (deltaGdef.length < n) {
+            deltaGdef_old = new double[n];
+            deltaGmec = new double[n];
+            deltaGgc = new double[n];
+            deltaGdef = new double[n];
+            status = new int[n];
+            kpRe = new double[n];
+            kpIm = new double[n];
+            knRe = new double[n];
+            knIm = new double[n];
+            kp2Re = new double[n];
+            kp2Im = new double[n];
+            kn2Re = new double[n];
+            kn2Im = new double[n];
+            gamma = new double[n];
+            knIndex = new int[n];
+            // K(k+ * r0) and K(k- * r0) of every set
+            zRe = new double[2 * n];
+            zIm = new double[2 * n];
+            k0Re = new double[2 * n];
+            k0Im = new double[2 * n];
+            k1Re = new double[2 * n];
+            k1Im = new double[2 * n];
+            ierr = new int[2 * n];
+        }
+        size = n;
+    }
+
+    /**
+     * Set all values of set i to Double.NaN
+     * @return 1, to be added to the failed count
+     */
+    private int fail(int i, int code) {
+        deltaGdef_old[i] = deltaGmec[i] = deltaGgc[i] = deltaGdef[i] = Double.NaN;
+        status[i] = code;
+        return 1;
+    }
+
+    /**
+     * (aRe + i aIm) / (bRe + i bIm) into quotRe and quotIm, the same steps as
+     * JSci.maths.Complex.divide
+     */
+    private void divide(double aRe, double aIm, double bRe, double bIm) {
+        double den, re, im;
+        if (Math.abs(bRe) < Math.abs(bIm)) {
+            double q = bRe / bIm;
+            den = bRe * q + bIm;
+            re = aRe * q + aIm;
+            im = aIm * q - aRe;
+        } else {
+            double q = bIm / bRe;
+            den = bRe + bIm * q;
+            re = aRe + aIm * q;
+            im = aIm - aRe * q;
+        }
+        quotRe = re / den;
+        quotIm = im / den;
+    }
+
+    /**
+     * |re + i im| with the same steps as JSci.maths.Complex.mod
+     */
+    private static double mod(double re, double im) {
+        double absRe = Math.abs(re);
+        double absIm = Math.abs(im);
+        if (absRe == 0.0 && absIm == 0.0) {
+            return 0.0;
+        }
+        if (absRe < absIm) {
+            return absIm * Math.sqrt(1.0 + (re / im) * (re / im));
+        }
+        return absRe * Math.sqrt(1.0 + (im / re) * (im / re));
+    }
+
+    /**
+     * @return number of sets of the last calculate call
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return number of sets whose status is not Curvature.STATUS_OK
+     */
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    /**
+     * @return the status of each set, Curvature.STATUS_OK or the reason its values are
+     * Double.NaN, only the first size() values are valid
+     */
+    public int[] getStatus() {
+        return status;
+    }
+
+    /**
+     * @return deltaGdef_old of each set, the CE, SD and ST parts, see Curvature.getDeltaGdef_old,
+     * only the first size() values are valid
+     */
+    public double[] getDeltaGdef_old() {
+        return deltaGdef_old;
+    }
+
+    /**
+     * @return deltaGmec of each set, see Curvature.getDeltaGmec, only the first size() values
+     * are valid
+     */
+    public double[] getDeltaGmec() {
+        return deltaGmec;
+    }
+
+    /**
+     * @return deltaGgc of each set, see Curvature.getDeltaGgc, only the first size() values
+     * are valid
+     */
+    public double[] getDeltaGgc() {
+        return deltaGgc;
+    }
+
+    /**
+     * @return the total deformation free energy of each set, see Curvature.getDeltaGdef, only
+     * the first size() values are valid
+     */
+    public double[] getDeltaGdef() {
+        return deltaGdef;
+    }
+
+}
@@ -1,49 +1,50 @@
-package edu.oa.curvature;
-
-import fs.fed.us.optimization.Fmin;
-import fs.fed.us.optimization.Fmin_methods;
-
-public class CurvatureFMin implements Fmin_methods {
-
-	private double d0;
-	private double u0;
-	private double r0;
-	private double ka;
-	private double kc;
-	private double kg;
-	private double c0;
-	private double alfa;
-
-	public CurvatureFMin(double d0, double u0, double r0, double ka, double kc, double kg, double alfa, double c0) {
-		this.d0 = d0;
-		this.u0 = u0;
-		this.r0 = r0;
-		this.ka = ka;
-		this.kc = kc;
-		this.kg = kg;
-		this.alfa = alfa;
-		this.c0 = c0;
-	}
-
-	public double f_to_minimize(double x) {
-		double new_s = x;
-		double ret = Double.NaN;
-		try {
-			Curvature curvature = new Curvature(d0, u0, r0, ka, kc, kg, alfa, new_s, c0);
-			ret = curvature.getDeltaGdef();
-		} catch (Exception e) {
-			// No nothing, we report a NaN in ret
-		}
-		return ret;
-	}
-
-	/**
-	 * Calculates Smin, numerically 
-	 */
-	public static double calculateSmin(double d0, double u0, double r0, double ka, double kc, double kg, double alfa, double c0) {
-		CurvatureFMin curvatureFMin = new CurvatureFMin(d0, u0, r0, ka, kc, kg, alfa, c0);
-		double smin = Fmin.fmin(-2, 2, curvatureFMin, 0.00001);
-		return smin;
-	}
-
-}
+package edu.oa.curvature;
+
+import fs.fed.us.optimization.Fmin;
+import fs.fed.us.optimization.Fmin_methods;
+
+public class CurvatureFMin implements Fmin_methods {
+
+	// Smin is looked for in this range
+	public static final double SMIN_LOWER = -2;
+	public static final double SMIN_UPPER = 2;
+
+	private Curvature curvature;
+	private double u0;
+	private double c0;
+
+	public CurvatureFMin(double d0, double u0, double r0, double ka, double kc, double kg, double alfa, double c0) throws Exception {
+		this(new Curvature(d0, u0, r0, ka, kc, kg, alfa, 0.0, c0), u0, c0);
+	}
+
+	/**
+	 * Minimize the energy of curvature, for u0 and c0, over s
+	 */
+	public CurvatureFMin(Curvature curvature, double u0, double c0) {
+		this.curvature = curvature;
+		this.u0 = u0;
+		this.c0 = c0;
+	}
+
+	public double f_to_minimize(double x) {
+		double new_s = x;
+		// Quadratic form of the energy in s, no new Curvature (and Bessel functions) needed,
+		// a NaN is reported if the energy has a non zero imag. part
+		return curvature.calcDeltaGdef(u0, new_s, c0);
+	}
+
+	/**
+	 * Calculates Smin in [SMIN_LOWER, SMIN_UPPER] from the quadratic form of the energy, see
+	 * Curvature.getSmin. If the energy is not convex in s it is minimized numerically.
+	 * @throws Exception if Bessel function fails or the energy has a non zero imag. part
+	 */
+	public static double calculateSmin(double d0, double u0, double r0, double ka, double kc, double kg, double alfa, double c0) throws Exception {
+		Curvature curvature = new Curvature(d0, u0, r0, ka, kc, kg, alfa, 0.0, c0);
+		double smin = curvature.getSmin(u0, c0);
+		if (Double.isNaN(smin)) {
+			smin = Fmin.fmin(SMIN_LOWER, SMIN_UPPER, new CurvatureFMin(curvature, u0, c0), 0.00001);
+		}
+		return Math.max(SMIN_LOWER, Math.min(SMIN_UPPER, smin));
+	}
+
+}
@@ -0,0 +1,310 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Precalculated coefficients of the full deformation model, so deltaGdef and Smin of any
+ * material inside the table's domain are found without Bessel functions.
+ *
+ * With the length scale landa = beta^(-1/4) = (d0^2 * kc / (4 * ka))^(1/4) (ka as in
+ * Curvature, 4 * ka in the simplified treatment) k+ * landa and k- * landa only depend
+ * on the tension group tau = gamma * landa^2 = alpha * landa^2 / kc, and the
+ * coefficients of the quadratic form deltaGdef_old * changeParams = a1 * u0^2 +
+ * a2 * s * u0 + a3 * s^2 are
+ *     a1 = kc * f1(rho, tau) / landa^2, a2 = kc * f2(rho, tau) / landa, a3 = kc * f3(rho, tau)
+ * with rho = r0 / landa. The table holds f1 / rho, f2 / rho and f3 / rho (the
+ * coefficients grow about like r0) on a grid equally spaced in ln(rho) and tau,
+ * calculated with Curvature for kc = 1 and landa = 1, and interpolates them with 4 x 4
+ * point Lagrange polynomials. With the default grid a1, a2, a3 and Smin are within about
+ * 1e-9 of Curvature. The MEC and GC terms are added exactly as in Curvature.
+ *
+ * The table is a binary file written by main, a header (MAGIC, VERSION, grid size and
+ * domain) followed by the doubles f1 / rho, f2 / rho and f3 / rho of each grid point, tau
+ * major. load maps the file into memory, so it is only read as it is used and is shared
+ * by all processes on the machine. Outside the domain (see contains) the getters fall
+ * back to Curvature.
+ */
+public class MasterTable {
+
+    // "CMT" and the version of the file format, a file of another version is not loaded
+    public static final int MAGIC = 0x434D5400;
+    public static final int VERSION = 1;
+    // Table used by getDefault, the file name is taken from this system property
+    public static final String FILE_PROPERTY = "curvature.masterTable";
+    public static final String DEFAULT_FILE = "curvature.master";
+    // Default grid and domain of main
+    public static final int DEFAULT_RHO_POINTS = 513;
+    public static final int DEFAULT_TAU_POINTS = 65;
+    public static final double DEFAULT_RHO_MIN = 0.1;
+    public static final double DEFAULT_RHO_MAX = 25.0;
+    public static final double DEFAULT_TAU_MIN = 0.0;
+    public static final double DEFAULT_TAU_MAX = 1.5;
+
+    private static final int HEADER_BYTES = 64;
+    private static final int VALUES = 3; // f1, f2 and f3
+
+    private static MasterTable defaultTable;
+
+    private final DoubleBuffer data;
+    private final int nRho;
+    private final int nTau;
+    private final double lnRhoMin;
+    private final double lnRhoMax;
+    private final double tauMin;
+    private final double tauMax;
+    private final double hRho;
+    private final double hTau;
+
+    private MasterTable(ByteBuffer buffer, String name) throws Exception {
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new Exception(name + " is not a master table");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new Exception(name + " is a version " + version + " master table, version " + VERSION + " is needed");
+        }
+        nRho = buffer.getInt(8);
+        nTau = buffer.getInt(12);
+        lnRhoMin = buffer.getDouble(16);
+        lnRhoMax = buffer.getDouble(24);
+        tauMin = buffer.getDouble(32);
+        tauMax = buffer.getDouble(40);
+        if (nRho < 4 || nTau < 4 || buffer.capacity() != HEADER_BYTES + 8L * VALUES * nRho * nTau) {
+            throw new Exception(name + " has a wrong size for a " + nRho + " x " + nTau + " master table");
+        }
+        hRho = (lnRhoMax - lnRhoMin) / (nRho - 1);
+        hTau = (tauMax - tauMin) / (nTau - 1);
+        buffer.position(HEADER_BYTES);
+        data = buffer.slice().asDoubleBuffer();
+    }
+
+    /**
+     * Map a table file into memory
+     * @param fileName
+     * @return the table
+     * @throws Exception if the file can not be read or is not a master table of this version
+     */
+    public static MasterTable load(String fileName) throws Exception {
+        RandomAccessFile file = new RandomAccessFile(fileName, "r");
+        try {
+            FileChannel channel = file.getChannel();
+            return new MasterTable(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()), fileName);
+        } finally {
+            // The mapping stays valid after the file is closed
+            file.close();
+        }
+    }
+
+    /**
+     * Get the table named by the system property FILE_PROPERTY, DEFAULT_FILE if not set.
+     * If there is no such file it is read from the class path (a resource in the jar can
+     * not be mapped, so it is copied into memory).
+     * @return the table, loaded the first time
+     * @throws Exception if the table is not found or is not a master table of this version
+     */
+    public static synchronized MasterTable getDefault() throws Exception {
+        if (defaultTable == null) {
+            String fileName = System.getProperty(FILE_PROPERTY, DEFAULT_FILE);
+            if (new File(fileName).isFile()) {
+                defaultTable = load(fileName);
+            } else {
+                InputStream in = MasterTable.class.getResourceAsStream("/" + fileName);
+                if (in == null) {
+                    throw new Exception("Master table " + fileName + " not found, it is written by MasterTable.main");
+                }
+                try {
+                    DataInputStream dataIn = new DataInputStream(in);
+                    byte[] bytes = new byte[HEADER_BYTES];
+                    dataIn.readFully(bytes);
+                    ByteBuffer header = ByteBuffer.wrap(bytes);
+                    long size = HEADER_BYTES + 8L * VALUES * header.getInt(8) * header.getInt(12);
+                    ByteBuffer buffer = ByteBuffer.allocateDirect((int) size);
+                    buffer.put(bytes);
+                    bytes = new byte[(int) size - HEADER_BYTES];
+                    dataIn.readFully(bytes);
+                    buffer.put(bytes);
+                    buffer.flip();
+                    defaultTable = new MasterTable(buffer, fileName);
+                } finally {
+                    in.close();
+                }
+            }
+        }
+        return defaultTable;
+    }
+
+    /**
+     * @return landa = beta^(-1/4), the length scale of the material
+     */
+    public static double getLanda(double d0, double ka, double kc) {
+        double beta = (4 * ka) / (d0 * d0 * kc);
+        return Math.pow(beta, -0.25);
+    }
+
+    /**
+     * @return true if r0 / landa and the tension group of the material are inside the table
+     */
+    public boolean contains(double d0, double r0, double ka, double kc, double alpha) {
+        double landa = getLanda(d0, ka, kc);
+        double lnRho = Math.log(r0 / landa);
+        double tau = alpha * landa * landa / kc;
+        return lnRho >= lnRhoMin && lnRho <= lnRhoMax && tau >= tauMin && tau <= tauMax;
+    }
+
+    /**
+     * Get the coefficients a1, a2 and a3 of the quadratic form, see Curvature.getA1
+     * @param d0
+     * @param r0
+     * @param ka
+     * @param kc
+     * @param alpha
+     * @return {a1, a2, a3}
+     * @throws Exception if outside the table and the full model fails
+     */
+    public double[] getA(double d0, double r0, double ka, double kc, double alpha) throws Exception {
+        double landa = getLanda(d0, ka, kc);
+        double lnRho = Math.log(r0 / landa);
+        double tau = alpha * landa * landa / kc;
+        if (!(lnRho >= lnRhoMin && lnRho <= lnRhoMax && tau >= tauMin && tau <= tauMax)) {
+            Curvature curvature = new Curvature(d0, 0.0, r0, ka, kc, 0.0, alpha, 0.0, 0.0);
+            return new double[] { curvature.getA1(), curvature.getA2(), curvature.getA3() };
+        }
+        double[] f = new double[VALUES];
+        interpolate(lnRho, tau, f);
+        double rho = r0 / landa;
+        return new double[] { kc * rho * f[0] / (landa * landa), kc * rho * f[1] / landa, kc * rho * f[2] };
+    }
+
+    /**
+     * Get the total deformation free energy, same as Curvature.getDeltaGdef up to the
+     * interpolation error. Parameters as in the Curvature constructor.
+     * @throws Exception if outside the table and the full model fails
+     */
+    public double getDeltaGdef(double d0, double u0, double r0, double ka, double kc, double kg, double alpha, double s,
+            double c0) throws Exception {
+        double[] a = getA(d0, r0, ka, kc, alpha);
+        return Curvature.calcDeltaGdef(a[0], a[1], a[2], u0, s, c0, r0, kc, kg);
+    }
+
+    /**
+     * Get Smin, see Curvature.getSmin
+     * @return Smin, or Double.NaN if the energy is not convex in s or Newton's method does
+     * not converge
+     * @throws Exception if outside the table and the full model fails
+     */
+    public double getSmin(double d0, double u0, double r0, double ka, double kc, double kg, double alpha, double c0)
+            throws Exception {
+        double[] a = getA(d0, r0, ka, kc, alpha);
+        return Curvature.calcSmin(a[1], a[2], u0, c0, r0, kc, kg);
+    }
+
+    /**
+     * Interpolate f1, f2 and f3 at (lnRho, tau) inside the domain
+     */
+    private void interpolate(double lnRho, double tau, double[] f) {
+        double x = (lnRho - lnRhoMin) / hRho;
+        double y = (tau - tauMin) / hTau;
+        // First of the 4 x 4 grid points, x and y between its second and third point
+        int i = Math.max(0, Math.min(nRho - 4, (int) Math.floor(x) - 1));
+        int j = Math.max(0, Math.min(nTau - 4, (int) Math.floor(y) - 1));
+        double[] wx = new double[4];
+        double[] wy = new double[4];
+        lagrange(x - i, wx);
+        lagrange(y - j, wy);
+        for (int v = 0; v < VALUES; v++) {
+            double sum = 0.0;
+            for (int m = 0; m < 4; m++) {
+                int row = ((j + m) * nRho + i) * VALUES + v;
+                double sumX = 0.0;
+                for (int l = 0; l < 4; l++) {
+                    sumX += wx[l] * data.get(row + l * VALUES);
+                }
+                sum += wy[m] * sumX;
+            }
+            f[v] = sum;
+        }
+    }
+
+    /**
+     * Weights of the cubic Lagrange polynomial through the points 0, 1, 2 and 3 at t
+     */
+    private static void lagrange(double t, double[] w) {
+        double t0 = t, t1 = t - 1, t2 = t - 2, t3 = t - 3;
+        w[0] = -t1 * t2 * t3 / 6;
+        w[1] = t0 * t2 * t3 / 2;
+        w[2] = -t0 * t1 * t3 / 2;
+        w[3] = t0 * t1 * t2 / 6;
+    }
+
+    /**
+     * @return the domain {rho min, rho max, tau min, tau max}
+     */
+    public double[] getDomain() {
+        return new double[] { Math.exp(lnRhoMin), Math.exp(lnRhoMax), tauMin, tauMax };
+    }
+
+    /**
+     * Write a master table, calculated with Curvature and the current Bessel backend
+     * @param fileName
+     * @param nRho Number of grid points in ln(rho)
+     * @param nTau Number of grid points in tau
+     * @param rhoMin
+     * @param rhoMax
+     * @param tauMin
+     * @param tauMax
+     * @throws Exception if Bessel function fails or a coefficient has a non zero imag. part
+     */
+    public static void write(String fileName, int nRho, int nTau, double rhoMin, double rhoMax, double tauMin,
+            double tauMax) throws Exception {
+        if (nRho < 4 || nTau < 4) { throw new Exception("The table needs at least 4 x 4 points"); }
+        double lnRhoMin = Math.log(rhoMin);
+        double lnRhoMax = Math.log(rhoMax);
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + 8 * VALUES * nRho * nTau);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(nRho).putInt(nTau);
+        buffer.putDouble(lnRhoMin).putDouble(lnRhoMax).putDouble(tauMin).putDouble(tauMax);
+        buffer.position(HEADER_BYTES);
+        for (int j = 0; j < nTau; j++) {
+            double tau = tauMin + (tauMax - tauMin) * j / (nTau - 1);
+            // kc = 1 and landa = 1: beta = 4 * ka / d0^2 = 1 and gamma = alpha = tau
+            Material material = Material.get(1.0, 0.25, 1.0, tau);
+            for (int i = 0; i < nRho; i++) {
+                double rho = Math.exp(lnRhoMin + (lnRhoMax - lnRhoMin) * i / (nRho - 1));
+                Curvature curvature = new Curvature(MaterialBoundary.get(material, rho), 0.0, 0.0, 0.0, 0.0);
+                buffer.putDouble(curvature.getA1() / rho).putDouble(curvature.getA2() / rho).putDouble(curvature.getA3() / rho);
+            }
+        }
+        FileOutputStream out = new FileOutputStream(fileName);
+        try {
+            out.write(buffer.array());
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the master table
+     *
+     * @param args file name (default DEFAULT_FILE), points in ln(rho) and in tau
+     */
+    public static void main(String[] args) throws Exception {
+        String fileName = args.length > 0 ? args[0] : DEFAULT_FILE;
+        int nRho = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_RHO_POINTS;
+        int nTau = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_TAU_POINTS;
+        long start = System.currentTimeMillis();
+        write(fileName, nRho, nTau, DEFAULT_RHO_MIN, DEFAULT_RHO_MAX, DEFAULT_TAU_MIN, DEFAULT_TAU_MAX);
+        System.out.println("Wrote " + fileName + ", " + nRho + " x " + nTau + " points, rho in [" + DEFAULT_RHO_MIN + ", "
+            + DEFAULT_RHO_MAX + "], tau in [" + DEFAULT_TAU_MIN + ", " + DEFAULT_TAU_MAX + "], in "
+            + (System.currentTimeMillis() - start) + " ms");
+    }
+
+}
@@ -0,0 +1,199 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import JSci.maths.Complex;
+
+/**
+ * The part of a Curvature that only depends on the bilayer material constants d0, ka, kc
+ * and alpha: gamma, beta and the wavenumbers k+ and k-, Formulas #(7) and #(9).
+ *
+ * Instances are immutable and shared, get returns the same Material for the same constants
+ * as long as it is in a small least recently used cache, so a sweep over the inclusion
+ * (r0, u0, s, c0) does not solve for k+ and k- again. See MaterialBoundary for the values
+ * that also depend on r0.
+ */
+public class Material {
+
+    // Number of materials kept
+    private static final int CACHE_SIZE = 16;
+
+    private static final Map<Key, Material> cache = new LinkedHashMap<Key, Material>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Key, Material> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final double d0;
+    private final double ka;
+    private final double kc;
+    private final double alpha;
+    private final double gamma;
+    private final double beta;
+    private final Complex kp; // k+
+    private final Complex kn; // k-
+    private final Complex kp2; // k+^2
+    private final Complex kn2; // k-^2
+    private final boolean conjugateRoots; // k- is the complex conjugate of k+
+
+    private Material(double d0, double ka, double kc, double alpha) {
+        this.d0 = d0;
+        this.ka = ka;
+        this.kc = kc;
+        this.alpha = alpha;
+
+        // Formula #(7)
+        // Note gamma here is alpha in the Energetics of Inclusion-Induced Bilayer Deformation paper
+        gamma = this.alpha / this.kc;
+        beta = (4 * this.ka) / (this.d0 * this.d0 * this.kc); // Note correction ka = 4ka
+
+        // Calc k+ and k- , Formula #(9)
+        Complex temp = new Complex((gamma * gamma) - (4 * beta), 0).sqrt();
+        Complex kp2 = new Complex(gamma, 0).add(temp).divide(2);
+        Complex kn2 = new Complex(gamma, 0).subtract(temp).divide(2);
+        Complex kp = kp2.sqrt();
+        Complex kn = kn2.sqrt();
+        // For gamma^2 < 4 * beta k+ and k- are complex conjugates and as K(conj(z)) = conj(K(z))
+        // only K(k+ * r) has to be calculated for real r
+        conjugateRoots = (gamma * gamma) < (4 * beta);
+        if (conjugateRoots) {
+            kn2 = kp2.conjugate();
+            kn = kp.conjugate();
+        }
+        this.kp = kp;
+        this.kn = kn;
+        this.kp2 = kp2;
+        this.kn2 = kn2;
+    }
+
+    /**
+     * Get the material for these constants, from the cache if it was used recently
+     * @param d0
+     * @param ka
+     * @param kc
+     * @param alpha
+     * @return the material
+     */
+    public static Material get(double d0, double ka, double kc, double alpha) {
+        Key key = new Key(null, new double[] { d0, ka, kc, alpha });
+        Material material;
+        synchronized (cache) {
+            material = cache.get(key);
+        }
+        if (material == null) {
+            // Two threads may create the same material, both get the same values
+            material = new Material(d0, ka, kc, alpha);
+            synchronized (cache) {
+                cache.put(key, material);
+            }
+        }
+        return material;
+    }
+
+    /**
+     * Remove all materials from the cache
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public double getD0() {
+        return d0;
+    }
+
+    public double getKa() {
+        return ka;
+    }
+
+    public double getKc() {
+        return kc;
+    }
+
+    public double getAlpha() {
+        return alpha;
+    }
+
+    /**
+     * @return alpha / kc
+     */
+    public double getGamma() {
+        return gamma;
+    }
+
+    /**
+     * @return 4 * ka / (d0^2 * kc)
+     */
+    public double getBeta() {
+        return beta;
+    }
+
+    /**
+     * @return k+
+     */
+    public Complex getKp() {
+        return kp;
+    }
+
+    /**
+     * @return k-
+     */
+    public Complex getKn() {
+        return kn;
+    }
+
+    /**
+     * @return k+^2
+     */
+    public Complex getKp2() {
+        return kp2;
+    }
+
+    /**
+     * @return k-^2
+     */
+    public Complex getKn2() {
+        return kn2;
+    }
+
+    /**
+     * @return true if k- is the complex conjugate of k+
+     */
+    public boolean isConjugateRoots() {
+        return conjugateRoots;
+    }
+
+    /**
+     * Cache key, the exact parameter values and a tag that also has to be equal
+     */
+    static class Key {
+        private final Object tag;
+        private final double[] values;
+
+        Key(Object tag, double[] values) {
+            this.tag = tag;
+            this.values = values;
+        }
+
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return (tag == null ? other.tag == null : tag.equals(other.tag)) && Arrays.equals(values, other.values);
+        }
+
+        public int hashCode() {
+            return 31 * (tag == null ? 0 : tag.hashCode()) + Arrays.hashCode(values);
+        }
+    }
+
+}
@@ -0,0 +1,177 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.oa.curvature.bessel.Besselk;
+import JSci.maths.Complex;
+
+/**
+ * The part of a Curvature that depends on the Material and the inclusion radius r0, but
+ * not on u0, s or c0: the Bessel values K(k+ * r0) and K(k- * r0), the divisor of
+ * Formulas #(12a) and #(12b) and the coefficients a1, a2 and a3 of the energy as a quadratic
+ * form in u0 and s.
+ *
+ * Instances are immutable and shared, get returns the same MaterialBoundary for the same
+ * material, r0 and Bessel backend as long as it is in a small least recently used cache,
+ * so Curvature instances that only differ in u0, s or c0 (changing the inclusion length
+ * at constant r0, finding Smin) do not calculate any Bessel function.
+ */
+public class MaterialBoundary {
+
+    // Number of boundaries kept
+    private static final int CACHE_SIZE = 64;
+
+    private static final Map<Material.Key, MaterialBoundary> cache = new LinkedHashMap<Material.Key, MaterialBoundary>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Material.Key, MaterialBoundary> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private final Material material;
+    private final double r0;
+    private final Complex[] Kkpr0; // K0(k+ * r0) and K1(k+ * r0)
+    private final Complex[] Kknr0; // K0(k- * r0) and K1(k- * r0)
+    private final Complex div; // Divisor of A+ and A-
+    // deltaGdef_old = (a1 * u0^2 + a2 * s * u0 + a3 * s^2) / changeParams for any u0 and s,
+    // split in real and imag. part
+    private final double a1Re, a1Im;
+    private final double a2Re, a2Im;
+    private final double a3Re, a3Im;
+
+    private MaterialBoundary(Material material, double r0) throws Exception {
+        this.material = material;
+        this.r0 = r0;
+        Complex kp = material.getKp();
+        Complex kn = material.getKn();
+        Complex kp2 = material.getKp2();
+        Complex kn2 = material.getKn2();
+
+        // Calc the Bessel values and the divisor of A+ and A- , Formulas #(12a) and #(12b)
+        Kkpr0 = Besselk.getBesselK(kp.multiply(r0));
+        if (material.isConjugateRoots()) {
+            // K(k- * r0) is the conjugate of K(k+ * r0), no Bessel function call
+            Kknr0 = new Complex[] { Kkpr0[0].conjugate(), Kkpr0[1].conjugate() };
+        } else {
+            Kknr0 = Besselk.getBesselK(kn.multiply(r0));
+        }
+        div = (kn.multiply(Kkpr0[0].multiply(Kknr0[1]))).subtract(kp.multiply(Kknr0[0].multiply(Kkpr0[1])));
+
+        // A+ and A- are linear in u0 and s, A+ = apU * u0 + apS * s and A- = anU * u0 + anS * s
+        Complex apU = kn.multiply(Kknr0[1]).divide(div);
+        Complex apS = Kknr0[0].divide(div);
+        Complex anU = kp.multiply(Kkpr0[1]).divide(div).multiply(-1);
+        Complex anS = Kkpr0[0].divide(div).multiply(-1);
+        // so Formula #(13) is a quadratic form in u0 and s, with
+        // p = A+ * k+^2 * K0(k+ * r0) + A- * k-^2 * K0(k- * r0) = pU * u0 + pS * s and
+        // q = A+ * k+^3 * K1(k+ * r0) + A- * k-^3 * K1(k- * r0) = qU * u0 + qS * s
+        Complex kp2K0 = kp2.multiply(Kkpr0[0]);
+        Complex kn2K0 = kn2.multiply(Kknr0[0]);
+        Complex kp3K1 = kp.multiply(kp2).multiply(Kkpr0[1]);
+        Complex kn3K1 = kn.multiply(kn2).multiply(Kknr0[1]);
+        Complex pU = apU.multiply(kp2K0).add(anU.multiply(kn2K0));
+        Complex pS = apS.multiply(kp2K0).add(anS.multiply(kn2K0));
+        Complex qU = apU.multiply(kp3K1).add(anU.multiply(kn3K1));
+        Complex qS = apS.multiply(kp3K1).add(anS.multiply(kn3K1));
+        double fact = -Math.PI * r0 * material.getKc();
+        a1Re = qU.real() * fact;
+        a1Im = qU.imag() * fact;
+        a2Re = (pU.real() + qS.real() + material.getGamma()) * fact;
+        a2Im = (pU.imag() + qS.imag()) * fact;
+        a3Re = pS.real() * fact;
+        a3Im = pS.imag() * fact;
+    }
+
+    /**
+     * Get the boundary values for this material and r0, from the cache if they were used
+     * recently with the current Bessel backend
+     * @param material
+     * @param r0
+     * @return the boundary values
+     * @throws Exception if Bessel function fails
+     */
+    public static MaterialBoundary get(Material material, double r0) throws Exception {
+        Material.Key key = new Material.Key(Besselk.getBackend(), new double[] { material.getD0(), material.getKa(),
+                material.getKc(), material.getAlpha(), r0 });
+        MaterialBoundary boundary;
+        synchronized (cache) {
+            boundary = cache.get(key);
+        }
+        if (boundary == null) {
+            // Two threads may create the same boundary, both get the same values
+            boundary = new MaterialBoundary(material, r0);
+            synchronized (cache) {
+                cache.put(key, boundary);
+            }
+        }
+        return boundary;
+    }
+
+    /**
+     * Remove all boundaries from the cache
+     */
+    public static void clearCache() {
+        synchronized (cache) {
+            cache.clear();
+        }
+    }
+
+    public Material getMaterial() {
+        return material;
+    }
+
+    public double getR0() {
+        return r0;
+    }
+
+    /**
+     * @return K0(k+ * r0) and K1(k+ * r0), not to be modified
+     */
+    Complex[] getKkpr0() {
+        return Kkpr0;
+    }
+
+    /**
+     * @return K0(k- * r0) and K1(k- * r0), not to be modified
+     */
+    Complex[] getKknr0() {
+        return Kknr0;
+    }
+
+    /**
+     * @return k- * K0(k+ * r0) * K1(k- * r0) - k+ * K0(k- * r0) * K1(k+ * r0)
+     */
+    public Complex getDiv() {
+        return div;
+    }
+
+    double getA1Re() {
+        return a1Re;
+    }
+
+    double getA1Im() {
+        return a1Im;
+    }
+
+    double getA2Re() {
+        return a2Re;
+    }
+
+    double getA2Im() {
+        return a2Im;
+    }
+
+    double getA3Re() {
+        return a3Re;
+    }
+
+    double getA3Im() {
+        return a3Im;
+    }
+
+}
@@ -0,0 +1,257 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import java.util.Arrays;
+
+/**
+ * The bilayer profile and the energy components on one r grid, as calculated by
+ * Curvature.getProfile in a single pass. The grid is stored once and each quantity in
+ * its own column.
+ *
+ * A result can be passed back to Curvature.getProfile to be filled again, its columns 
+ * are then reused if they are large enough, so recalculating does not allocate. The 
+ * columns can be longer than size(), only the first size() values are part of the result.
+ *
+ * The get...Values methods return [x, y] arrays in the format of the ...forRange methods
+ * of Curvature, the arrays are shared with this object when the columns have exactly 
+ * size() values and copied otherwise.
+ */
+public class ProfileResult {
+
+    private int size;
+    private double[] r;
+    private double[] u;
+    private double[] du;
+    private double[] ce;
+    private double[] sd;
+    private double[] st;
+    private double[] mec;
+    private double[] def;
+    private int[] status;
+    // Number of failed points for each Curvature.STATUS_ code
+    private final int[] failedCounts = new int[Curvature.STATUS_IMAG + 1];
+
+    /**
+     * An empty result, to be filled by Curvature.getProfile
+     */
+    public ProfileResult() {
+        this(0);
+    }
+
+    /**
+     * Allocate a result for n grid points
+     * @param n Number of points
+     */
+    ProfileResult(int n) {
+        r = new double[n];
+        u = new double[n];
+        du = new double[n];
+        ce = new double[n];
+        sd = new double[n];
+        st = new double[n];
+        mec = new double[n];
+        def = new double[n];
+        status = new int[n];
+        size = n;
+    }
+
+    /**
+     * Make room for n grid points, the columns are only reallocated if they are too small
+     * @param n Number of points
+     */
+    void resize(int n) {
+        if (r.length < n) {
+            r = new double[n];
+            u = new double[n];
+            du = new double[n];
+            ce = new double[n];
+            sd = new double[n];
+            st = new double[n];
+            mec = new double[n];
+            def = new double[n];
+            status = new int[n];
+        }
+        size = n;
+        Arrays.fill(failedCounts, 0);
+    }
+
+    /**
+     * @return number of grid points
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the status of each point, Curvature.STATUS_OK or the reason its values are 
+     * Double.NaN, see Curvature.calcProfile
+     */
+    public int[] getStatus() {
+        return status;
+    }
+
+    /**
+     * @return number of points whose status is not Curvature.STATUS_OK
+     */
+    public int getFailedCount() {
+        return failedCounts[Curvature.STATUS_BESSEL] + failedCounts[Curvature.STATUS_IMAG];
+    }
+
+    /**
+     * @param status Curvature.STATUS_BESSEL or Curvature.STATUS_IMAG
+     * @return number of points with this status
+     */
+    public int getFailedCount(int status) {
+        return failedCounts[status];
+    }
+
+    /**
+     * @return number of failed points indexed by Curvature.STATUS_ code, filled by Curvature
+     */
+    int[] getFailedCounts() {
+        return failedCounts;
+    }
+
+    /**
+     * @param value Curvature.U, DU, CE, SD, ST, MEC or DEF
+     * @return the column of the value
+     */
+    public double[] getColumn(int value) {
+        switch (value) {
+        case Curvature.U:
+            return u;
+        case Curvature.DU:
+            return du;
+        case Curvature.CE:
+            return ce;
+        case Curvature.SD:
+            return sd;
+        case Curvature.ST:
+            return st;
+        case Curvature.MEC:
+            return mec;
+        case Curvature.DEF:
+            return def;
+        default:
+            throw new IllegalArgumentException("Unknown value " + value);
+        }
+    }
+
+    /**
+     * @return the radial distances r
+     */
+    public double[] getR() {
+        return r;
+    }
+
+    /**
+     * @return u(r), monolayer deformation
+     */
+    public double[] getU() {
+        return u;
+    }
+
+    /**
+     * @return u'(r)
+     */
+    public double[] getdU() {
+        return du;
+    }
+
+    /**
+     * @return deltaGce(r), compression-expansion
+     */
+    public double[] getDeltaGce() {
+        return ce;
+    }
+
+    /**
+     * @return deltaGsd(r), splay-distortion
+     */
+    public double[] getDeltaGsd() {
+        return sd;
+    }
+
+    /**
+     * @return deltaGst(r), surface tension
+     */
+    public double[] getDeltaGst() {
+        return st;
+    }
+
+    /**
+     * @return deltaGmec(r), monolayer equilibrium curvature
+     */
+    public double[] getDeltaGmec() {
+        return mec;
+    }
+
+    /**
+     * @return deltaGdef(r) = deltaGce(r) + deltaGsd(r) + deltaGst(r) + deltaGmec(r)
+     */
+    public double[] getDeltaGdef() {
+        return def;
+    }
+
+    /**
+     * @return an array of [x, u(x)] values
+     */
+    public double[][] getUValues() {
+        return values(u);
+    }
+
+    /**
+     * @return an array of [x, u'(x)] values
+     */
+    public double[][] getdUValues() {
+        return values(du);
+    }
+
+    /**
+     * @return an array of [x, deltaGce(x)] values
+     */
+    public double[][] getCeValues() {
+        return values(ce);
+    }
+
+    /**
+     * @return an array of [x, deltaGsd(x)] values
+     */
+    public double[][] getSdValues() {
+        return values(sd);
+    }
+
+    /**
+     * @return an array of [x, deltaGst(x)] values
+     */
+    public double[][] getStValues() {
+        return values(st);
+    }
+
+    /**
+     * @return an array of [x, deltaGmec(x)] values
+     */
+    public double[][] getMecValues() {
+        return values(mec);
+    }
+
+    /**
+     * @return an array of [x, deltaGdef(x)] values
+     */
+    public double[][] getDefValues() {
+        return values(def);
+    }
+
+    /**
+     * @return [x, y] array of the first size() values of r and y
+     */
+    private double[][] values(double[] y) {
+        if (r.length == size) {
+            return new double[][] { r, y };
+        }
+        return new double[][] { Arrays.copyOf(r, size), Arrays.copyOf(y, size) };
+    }
+
+}
@@ -0,0 +1,28 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+/**
+ * Receives the points of a profile one at a time from Curvature.streamProfile, in order 
+ * of increasing r. Only a small chunk of the grid is held in memory at any time, so 
+ * profiles of any length can be integrated, written out or plotted in constant memory.
+ */
+public interface ProfileSink {
+
+    /**
+     * Called once for each grid point
+     * @param r Radical distance from inclusion symmetry axis
+     * @param u u(r)
+     * @param du u'(r)
+     * @param ce deltaGce(r)
+     * @param sd deltaGsd(r)
+     * @param st deltaGst(r)
+     * @param mec deltaGmec(r)
+     * @param def deltaGdef(r)
+     * @return true to continue, false to stop after this point
+     * @throws Exception to stop, the exception is passed on to the caller of streamProfile
+     */
+    boolean point(double r, double u, double du, double ce, double sd, double st, double mec, double def) throws Exception;
+
+}
@@ -1,32 +1,41 @@
-/*
- * Created on Jul 9, 2004
- */
-package edu.oa.curvature;
-
-import java.util.Locale;
-
-import javax.swing.JFrame;
-import javax.swing.WindowConstants;
-
-
-/**
- * Wraps the Curvature program in a Frame
- * 
- * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
- */
-public class RunFrame {
-	
-	public static void main(String[] args) {
-		
-		// This is needed as the "curvature.properties" file is in US format.
-	    Locale.setDefault(Locale.US);
-		
-		JFrame frame = new JFrame("Curvature");
-	    frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-	    CurvatureGUI curvatureGUI = new CurvatureGUI();
-	    curvatureGUI.addGUItoPanel(frame.getContentPane());
-	    frame.pack();
-		frame.setVisible(true);
-	}
-	
-}
+/*
+ * Created on Jul 9, 2004
+ */
+package edu.oa.curvature;
+
+import java.util.Locale;
+
+import javax.swing.JFrame;
+import javax.swing.WindowConstants;
+
+import edu.oa.curvature.bessel.Besselk;
+import edu.oa.curvature.utils.Resources;
+
+
+/**
+ * Wraps the Curvature program in a Frame
+ * 
+ * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
+ */
+public class RunFrame {
+	
+	public static void main(String[] args) {
+		
+		// This is needed as the "curvature.properties" file is in US format.
+	    Locale.setDefault(Locale.US);
+
+	    // Bessel implementation from "curvature.properties", the system property overrides it
+	    String backend = Resources.getOptionalString(Besselk.BACKEND_PROPERTY);
+	    if (backend != null && System.getProperty(Besselk.BACKEND_PROPERTY) == null) {
+	        Besselk.setBackend(backend.trim());
+	    }
+		
+		JFrame frame = new JFrame("Curvature");
+	    frame.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+	    CurvatureGUI curvatureGUI = new CurvatureGUI();
+	    curvatureGUI.addGUItoPanel(frame.getContentPane());
+	    frame.pack();
+		frame.setVisible(true);
+	}
+	
+}
@@ -0,0 +1,300 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import edu.oa.curvature.bessel.Besselk;
+
+/**
+ * Evaluates deltaGdef for screening sweeps in two tiers. Each point is first answered
+ * from the simplified treatment (#), the quadratic form a1 * u0^2 + a2 * s * u0 +
+ * a3 * s^2 of CurvatureSimplifiedTreatment plus the MEC and GC terms, and only
+ * escalated to the full model (Curvature) when that answer is not good enough.
+ *
+ * The simplified treatment is the full model without surface tension, for alpha = 0 both
+ * give the same energy up to rounding. The discrepancy grows about linearly with the
+ * tension group tau = alpha * landa^2 / kc, landa = (d0^2 * kc / ka)^(1/4), so it is
+ * estimated as
+ *     factor * |tau| * (|a1| * u0^2 + |a2 * s * u0| + |a3| * s^2) / changeParams
+ * where factor is calibrated from the points that are calculated with the full model:
+ * the largest observed ratio of discrepancy to |tau| * (...) times CALIBRATION_SAFETY.
+ * Until CALIBRATION_POINTS points with tau != 0 have been seen every such point is
+ * escalated.
+ *
+ * A point is escalated if the estimated discrepancy is larger than the tolerance, if the
+ * simplified treatment fails, or if a decision threshold is set and the simplified energy
+ * is within the estimated discrepancy plus margin of it, so the decision could change.
+ * With setAuditInterval every n-th point answered by the simplified treatment is also
+ * calculated with the full model, to check the estimate on points that were not
+ * escalated. Counts and error statistics are kept for all calls.
+ *
+ * The coefficients a1, a2 and a3 only depend on d0, ka, kc and r0, they are kept in a
+ * small least recently used cache by these and the Bessel backend (as in MaterialBoundary)
+ * so a sweep over u0, s, c0, kg and alpha calls no Bessel function in the first tier. An
+ * instance must not be used by several threads at once.
+ */
+public class TieredCurvature {
+
+    // Number of points with tau != 0 used to calibrate before any is answered by the simplified treatment
+    public static final int CALIBRATION_POINTS = 8;
+    // The calibrated factor is the largest observed one times this
+    public static final double CALIBRATION_SAFETY = 2.0;
+    // Number of (Bessel backend, d0, ka, kc, r0) whose coefficients are kept
+    private static final int CACHE_SIZE = 64;
+
+    private final double tolerance;
+    private double threshold = Double.NaN;
+    private double margin;
+    private int auditInterval;
+
+    // Coefficients {a1, a2, a3} of the simplified treatment, null if it failed, by Bessel backend and (d0, ka, kc, r0)
+    private final Map<Material.Key, double[]> coefficients = new LinkedHashMap<Material.Key, double[]>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        protected boolean removeEldestEntry(Map.Entry<Material.Key, double[]> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    private double factor;
+    private int calibrationCount;
+
+    private long evaluations;
+    private long escalations;
+    private long audits;
+    private long underestimates;
+    private long comparisons;
+    private double sumDiscrepancy;
+    private double maxDiscrepancy;
+    private double maxRatio; // largest observed discrepancy / estimated discrepancy
+
+    private boolean lastEscalated;
+    private double lastErrorEstimate;
+
+    /**
+     * @param tolerance Largest accepted estimated discrepancy of the simplified treatment, in
+     * the units of Curvature.getDeltaGdef
+     * @throws Exception if tolerance is negative
+     */
+    public TieredCurvature(double tolerance) throws Exception {
+        if (!(tolerance >= 0.0)) { throw new Exception("tolerance must be >= 0, not " + tolerance); }
+        this.tolerance = tolerance;
+    }
+
+    /**
+     * Escalate points whose simplified energy is within the estimated discrepancy plus
+     * margin of threshold, where a screening decision could change
+     * @param threshold Decision threshold of deltaGdef, Double.NaN for none
+     * @param margin Additional distance to the threshold that is escalated
+     */
+    public void setDecisionThreshold(double threshold, double margin) {
+        this.threshold = threshold;
+        this.margin = margin;
+    }
+
+    /**
+     * @param auditInterval Also calculate every n-th point answered by the simplified
+     * treatment with the full model, 0 for none
+     */
+    public void setAuditInterval(int auditInterval) {
+        this.auditInterval = auditInterval;
+    }
+
+    /**
+     * Get the total deformation free energy, from the simplified treatment if its estimated
+     * discrepancy is within the tolerance and the point is not near the decision threshold,
+     * else from the full model. Parameters as in the Curvature constructor.
+     * @param d0
+     * @param u0
+     * @param r0
+     * @param ka
+     * @param kc
+     * @param kg
+     * @param alpha
+     * @param s
+     * @param c0
+     * @return deltaGdef
+     * @throws Exception if the full model is needed and fails
+     */
+    public double getDeltaGdef(double d0, double u0, double r0, double ka, double kc, double kg, double alpha, double s,
+            double c0) throws Exception {
+        evaluations++;
+        double cheap = Double.NaN;
+        double estimate = Double.POSITIVE_INFINITY;
+        double scale = 0.0;
+        double[] a = getCoefficients(d0, r0, ka, kc);
+        if (a != null) {
+            double a1 = a[0], a2 = a[1], a3 = a[2];
+            // Formula (2)# and (15)$, and the GC term $(A1)
+            cheap = (a1 * (u0 * u0) + a2 * (s * u0) + a3 * (s * s) + 2 * Math.PI * kc * c0 * r0 * s) / Curvature.changeParams;
+            cheap += ((Math.PI / 2) * kg * (s * s / (1 + (s * s)))) / Curvature.changeParams;
+            double landa2 = Math.sqrt((d0 * d0 * kc) / ka);
+            double tau = Math.abs(alpha * landa2 / kc);
+            scale = tau * (Math.abs(a1) * (u0 * u0) + Math.abs(a2 * s * u0) + Math.abs(a3) * (s * s)) / Curvature.changeParams;
+            if (scale == 0.0) {
+                estimate = 0.0;
+            } else if (calibrationCount >= CALIBRATION_POINTS) {
+                estimate = factor * scale;
+            }
+        }
+        lastErrorEstimate = estimate;
+        boolean escalate = !(estimate <= tolerance)
+                || (!Double.isNaN(threshold) && Math.abs(cheap - threshold) <= estimate + margin);
+        boolean audit = !escalate && auditInterval > 0 && (evaluations - escalations) % auditInterval == 0;
+        lastEscalated = escalate;
+        if (!escalate && !audit) {
+            return cheap;
+        }
+
+        double full = new Curvature(d0, u0, r0, ka, kc, kg, alpha, s, c0).getDeltaGdef();
+        if (escalate) {
+            escalations++;
+        } else {
+            audits++;
+        }
+        if (!Double.isNaN(cheap)) {
+            double discrepancy = Math.abs(full - cheap);
+            comparisons++;
+            sumDiscrepancy += discrepancy;
+            maxDiscrepancy = Math.max(maxDiscrepancy, discrepancy);
+            if (!Double.isInfinite(estimate)) {
+                // Up to rounding, for alpha = 0 the estimate is 0
+                if (discrepancy > estimate + 1.0E-12 * Math.abs(full)) {
+                    underestimates++;
+                }
+                if (estimate > 0.0) {
+                    maxRatio = Math.max(maxRatio, discrepancy / estimate);
+                }
+            }
+            if (scale > 0.0) {
+                factor = Math.max(factor, CALIBRATION_SAFETY * discrepancy / scale);
+                calibrationCount++;
+            }
+        }
+        return escalate ? full : cheap;
+    }
+
+    /**
+     * @return the coefficients {a1, a2, a3} of the simplified treatment for d0, ka, kc and
+     * r0 with the current Bessel backend, null if it fails for them
+     */
+    private double[] getCoefficients(double d0, double r0, double ka, double kc) {
+        Material.Key key = new Material.Key(Besselk.getBackend(), new double[] { d0, ka, kc, r0 });
+        if (coefficients.containsKey(key)) {
+            return coefficients.get(key);
+        }
+        double[] a;
+        try {
+            // Need to correct for mono-layer/dual-layer compression (not in paper) ka *= 4, as in CurvatureGUI
+            CurvatureSimplifiedTreatment simplified = new CurvatureSimplifiedTreatment(d0, 0.0, r0, 0.0, ka * 4, kc, 0.0);
+            a = new double[] { simplified.getA1(), simplified.getA2(), simplified.getA3() };
+        } catch (Exception e) {
+            // Bessel function failed or a coefficient is complex, the full model decides
+            a = null;
+        }
+        coefficients.put(key, a);
+        return a;
+    }
+
+    /**
+     * @return true if the last getDeltaGdef was answered by the full model
+     */
+    public boolean isLastEscalated() {
+        return lastEscalated;
+    }
+
+    /**
+     * @return estimated discrepancy of the simplified treatment for the last getDeltaGdef,
+     * Double.POSITIVE_INFINITY if it could not be estimated (not calibrated yet or failed)
+     */
+    public double getLastErrorEstimate() {
+        return lastErrorEstimate;
+    }
+
+    /**
+     * @return the calibrated factor of the discrepancy estimate
+     */
+    public double getCalibrationFactor() {
+        return factor;
+    }
+
+    /**
+     * @return number of getDeltaGdef calls
+     */
+    public long getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return number of calls answered by the full model
+     */
+    public long getEscalations() {
+        return escalations;
+    }
+
+    /**
+     * @return getEscalations() / getEvaluations()
+     */
+    public double getEscalationRate() {
+        return evaluations == 0 ? 0.0 : (double) escalations / evaluations;
+    }
+
+    /**
+     * @return number of calls answered by the simplified treatment that were also calculated
+     * with the full model, see setAuditInterval
+     */
+    public long getAudits() {
+        return audits;
+    }
+
+    /**
+     * @return mean |full - simplified| over all points calculated with both
+     */
+    public double getMeanDiscrepancy() {
+        return comparisons == 0 ? 0.0 : sumDiscrepancy / comparisons;
+    }
+
+    /**
+     * @return largest |full - simplified| over all points calculated with both
+     */
+    public double getMaxDiscrepancy() {
+        return maxDiscrepancy;
+    }
+
+    /**
+     * @return largest observed discrepancy divided by its estimate, below 1 if the estimate
+     * was always an upper bound
+     */
+    public double getMaxDiscrepancyRatio() {
+        return maxRatio;
+    }
+
+    /**
+     * @return number of points calculated with both whose discrepancy was larger than its
+     * estimate
+     */
+    public long getUnderestimates() {
+        return underestimates;
+    }
+
+    /**
+     * Clear the counts, error statistics and calibration
+     */
+    public void reset() {
+        factor = 0.0;
+        calibrationCount = 0;
+        evaluations = escalations = audits = underestimates = comparisons = 0;
+        sumDiscrepancy = maxDiscrepancy = maxRatio = 0.0;
+    }
+
+    public String toString() {
+        return "evaluations = " + evaluations + ", escalations = " + escalations + " (" + (100.0 * getEscalationRate())
+            + " %), audits = " + audits + ", mean discrepancy = " + getMeanDiscrepancy() + ", max discrepancy = "
+            + maxDiscrepancy + ", max discrepancy / estimate = " + maxRatio + ", underestimates = " + underestimates
+            + ", calibration factor = " + factor;
+    }
+
+}
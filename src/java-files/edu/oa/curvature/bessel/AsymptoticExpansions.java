@@ -1,58 +1,174 @@
-/*
- * Created on Jul 9, 2004
- */
-package edu.oa.curvature.bessel;
-
-import JSci.maths.Complex;
-
-/**
- * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
- */
-public class AsymptoticExpansions {
-	
-	/**
-	 * Calculates the modified Bessel function of the second kind, using 
-	 * asymptotic Expansions for Large Arguments.
-	 * Warning only works for large value of 'z' and |arg z| < 3/2pi 
-	 * Ref: Handbook of Mathematical Functions ..., Ed. Milton Abramowitz
-	 * and Irene A. Stegun, pages:377-378
-	 * 
-	 * @param z 	Value to evaluate function for
-	 * @param v		Order of function
-	 * @param err 	Error bound (MAX error of result) 
-	 * @param maxIt	Max number of iterations, if reaches this number returns error
-	 * @return
-	 * @throws Exception
-	 */
-	public static Complex kv(Complex z, int v, double err, int maxIt) throws Exception {	
-		double maxApro = (3.0 / 2.0) * Math.PI;
-		if (Math.abs(z.arg()) >= maxApro) {
-			throw new Exception("Argument |arg z| = "+Math.abs(z.arg())+" but should be less than "+maxApro);
-		}	
-		double mu = 4 * v * v; 
-		Complex z8 = z.multiply(8);
-		Complex sum = new Complex(1,0);
-		Complex current = new Complex(mu - 1,0).divide(z8);
-		System.out.println("current1 real = "+current.real()+" img = "+current.imag());
-		sum = sum.add(current);
-		int n = 2;
-		while (Math.abs(current.real()) > err || Math.abs(current.imag()) > err) {
-			int fact = (2 * n) - 1;
-			fact *= fact;  // fact = (2n-1)^2
-			current = current.multiply( (mu - fact) / n ).divide(z8);
-			System.out.println("current"+n+" real = "+current.real()+" img = "+current.imag());
-			sum = sum.add(current);
-			if (n >= maxIt) {
-				throw new Exception("MAX iteration reached and error still over bound.");
-			}
-			n++;
-		}
-		Complex factor = new Complex(Math.PI,0);
-		factor = factor.divide(z.multiply(2));
-		factor = factor.sqrt();
-		factor = factor.multiply(Complex.exp(z.multiply(-1.0)));
-		System.out.println("factor real = "+factor.real()+" img = "+factor.imag());
-		return factor.multiply(sum);
-	}
-	
-}
+/*
+ * Created on Jul 9, 2004
+ */
+package edu.oa.curvature.bessel;
+
+import JSci.maths.Complex;
+
+/**
+ * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
+ */
+public class AsymptoticExpansions {
+
+	// Default relative error bound of besselk, about the accuracy of ZBESK
+	public static final double DEFAULT_TOL = 1.0E-15;
+
+	/**
+	 * Calculates K0(z) and K1(z) where this can be done cheaply in Java with a known
+	 * error bound, otherwise returns false and the caller should use the full (native)
+	 * implementation.
+	 *  |z| <= 2              : power series, BesselkJava.series
+	 *  |z| large, Re(z) >= 0 : asymptotic expansion, see largeZ
+	 *
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1, img order 1, error}
+	 * @return true if ret has been filled
+	 */
+	public static boolean besselk(double zreal, double zimg, double[] ret) {
+		return besselk(zreal, zimg, DEFAULT_TOL, ret);
+	}
+
+	/**
+	 * Same as besselk(zreal, zimg, ret) with a given relative error bound, a larger
+	 * bound lets the asymptotic expansion be used for smaller |z|.
+	 *
+	 * @param tol Relative error bound of the asymptotic expansion
+	 */
+	public static boolean besselk(double zreal, double zimg, double tol, double[] ret) {
+		double az = Math.hypot(zreal, zimg);
+		if (!(zreal >= 0.0) || az == 0.0 || az > BesselkJava.AZ_LOSS) {
+			// Left half plane, zero, NaN or loss of significance, let ZBESK handle it
+			return false;
+		}
+		if (az <= BesselkJava.SERIES_RADIUS) {
+			if (BesselkJava.series(zreal, zimg, ret) != 0) {
+				return false;
+			}
+			ret[4] = 0.0;
+			return true;
+		}
+		// The smallest term of the expansion is about exp(-2|z|), skip it when that can not reach tol
+		if (az < 0.5 * Math.log(1.0 / tol) - 2.0) {
+			return false;
+		}
+		return largeZ(zreal, zimg, tol, ret);
+	}
+
+	/**
+	 * Asymptotic expansion for large |z|, Ref: Handbook of Mathematical Functions ...,
+	 * Ed. Milton Abramowitz and Irene A. Stegun, formula 9.7.2
+	 *  K_v(z) ~ sqrt(pi / (2z)) exp(-z) sum a_k(v) / z^k, a_k(v) = prod_{j=1..k} (4v^2 - (2j-1)^2) / (8j)
+	 *
+	 * For |arg z| <= pi/2 the remainder after l terms is bounded by (NIST DLMF 10.40.10)
+	 *  2 chi(l) exp(|v^2 - 1/4| / |z|) |a_l(v) / z^l|,  chi(l) = sqrt(pi) G(l/2 + 1) / G(l/2 + 1/2) <= sqrt(pi (l + 1) / 2)
+	 * Terms are added until this bound is below tol for both orders, if the terms start
+	 * to grow first false is returned.
+	 */
+	static boolean largeZ(double zr, double zi, double tol, double[] ret) {
+		double az2 = zr * zr + zi * zi;
+		double az = Math.sqrt(az2);
+		// w = 1 / (8z)
+		double wr = zr / (8.0 * az2);
+		double wi = -zi / (8.0 * az2);
+		double expFact0 = 2.0 * Math.exp(0.25 / az);
+		double expFact1 = 2.0 * Math.exp(0.75 / az);
+
+		double t0r = 1.0, t0i = 0.0;
+		double t1r = 1.0, t1i = 0.0;
+		double s0r = 1.0, s0i = 0.0;
+		double s1r = 1.0, s1i = 0.0;
+		double last = Double.MAX_VALUE;
+		boolean converged = false;
+		for (int k = 1; k < 200; k++) {
+			double odd = (2 * k - 1);
+			odd *= odd;
+			double f0 = -odd / k;
+			double f1 = (4.0 - odd) / k;
+			// t = t * f * w
+			double nr = (t0r * wr - t0i * wi) * f0;
+			double ni = (t0r * wi + t0i * wr) * f0;
+			t0r = nr;
+			t0i = ni;
+			nr = (t1r * wr - t1i * wi) * f1;
+			ni = (t1r * wi + t1i * wr) * f1;
+			t1r = nr;
+			t1i = ni;
+			double m0 = Math.hypot(t0r, t0i);
+			double m1 = Math.hypot(t1r, t1i);
+			double chi = Math.sqrt(Math.PI * (k + 1) / 2.0);
+			if (expFact0 * chi * m0 < tol * Math.hypot(s0r, s0i) && expFact1 * chi * m1 < tol * Math.hypot(s1r, s1i)) {
+				// The remainder is below tol, this term is not needed
+				converged = true;
+				break;
+			}
+			if (Math.max(m0, m1) > last) {
+				// Past the smallest term, |z| is too small for tol
+				break;
+			}
+			last = Math.max(m0, m1);
+			s0r += t0r;
+			s0i += t0i;
+			s1r += t1r;
+			s1i += t1i;
+		}
+		if (!converged) {
+			return false;
+		}
+
+		// sqrt(pi / (2z)) * exp(-z)
+		double mod = Math.sqrt(Math.PI / (2.0 * az)) * Math.exp(-zr);
+		double arg = -0.5 * Math.atan2(zi, zr) - zi;
+		double fr = mod * Math.cos(arg);
+		double fi = mod * Math.sin(arg);
+		ret[0] = fr * s0r - fi * s0i;
+		ret[1] = fr * s0i + fi * s0r;
+		ret[2] = fr * s1r - fi * s1i;
+		ret[3] = fr * s1i + fi * s1r;
+		ret[4] = 0.0;
+		return true;
+	}
+
+	/**
+	 * Calculates the modified Bessel function of the second kind, using
+	 * asymptotic Expansions for Large Arguments.
+	 * Warning only works for large value of 'z' and |arg z| < 3/2pi
+	 * Ref: Handbook of Mathematical Functions ..., Ed. Milton Abramowitz
+	 * and Irene A. Stegun, pages:377-378
+	 *
+	 * @param z 	Value to evaluate function for
+	 * @param v		Order of function
+	 * @param err 	Error bound (MAX error of result)
+	 * @param maxIt	Max number of iterations, if reaches this number returns error
+	 * @return
+	 * @throws Exception
+	 */
+	public static Complex kv(Complex z, int v, double err, int maxIt) throws Exception {
+		double maxApro = (3.0 / 2.0) * Math.PI;
+		if (Math.abs(z.arg()) >= maxApro) {
+			throw new Exception("Argument |arg z| = "+Math.abs(z.arg())+" but should be less than "+maxApro);
+		}
+		double mu = 4 * v * v;
+		Complex z8 = z.multiply(8);
+		Complex sum = new Complex(1,0);
+		Complex current = new Complex(mu - 1,0).divide(z8);
+		sum = sum.add(current);
+		int n = 2;
+		while (Math.abs(current.real()) > err || Math.abs(current.imag()) > err) {
+			int fact = (2 * n) - 1;
+			fact *= fact;  // fact = (2n-1)^2
+			current = current.multiply( (mu - fact) / n ).divide(z8);
+			sum = sum.add(current);
+			if (n >= maxIt) {
+				throw new Exception("MAX iteration reached and error still over bound.");
+			}
+			n++;
+		}
+		Complex factor = new Complex(Math.PI,0);
+		factor = factor.divide(z.multiply(2));
+		factor = factor.sqrt();
+		factor = factor.multiply(Complex.exp(z.multiply(-1.0)));
+		return factor.multiply(sum);
+	}
+
+}
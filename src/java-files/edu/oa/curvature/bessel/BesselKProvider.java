@@ -0,0 +1,40 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+/**
+ * An implementation of K0(z) and K1(z) that can be selected at runtime through Besselk.
+ * The result layout and error codes are the ones of BesselkJINI.besselk.
+ *
+ * Implementations are found with java.util.ServiceLoader, they are listed in
+ * "META-INF/services/edu.oa.curvature.bessel.BesselKProvider" and need a public
+ * constructor without arguments. The constructor must not fail when a native library
+ * or JDK module is missing, isAvailable reports that instead.
+ */
+public interface BesselKProvider {
+
+	/**
+	 * @return the name used to select this implementation, see Besselk.BACKEND_PROPERTY
+	 */
+	String getName();
+
+	/**
+	 * @return true if the implementation can be used (native library loaded etc.)
+	 */
+	boolean isAvailable();
+
+	/**
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1, img order 1, error}
+	 */
+	void besselk(double zreal, double zimg, double[] ret);
+
+	/**
+	 * Calculates the first n points, see BesselkJINI.besselkBatch
+	 */
+	void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr);
+
+}
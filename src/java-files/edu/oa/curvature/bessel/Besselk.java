@@ -0,0 +1,281 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ServiceLoader;
+
+import JSci.maths.Complex;
+
+/**
+ * Entry point for the K-Bessel function used by the model. The calls are passed on
+ * to one of the implementations below, chosen by name with the system property
+ * "besselk.backend" (or setBackend). The implementations are BesselKProviders found
+ * with ServiceLoader:
+ *  java : BesselkJava, pure Java (default)
+ *  jni  : BesselkJINI, Amos Fortran code through the C wrapper (single points with small or
+ *         large |z| are done by AsymptoticExpansions.besselk)
+ *  ffm  : BesselkFFM, Amos Fortran code through the Foreign Function & Memory API
+ *  vector : BesselkVector, the java code with batches done by the Vector API (SIMD), the
+ *         results are the same bit for bit as java which is used when the jdk.incubator.vector
+ *         module is not there
+ *  interpolated : BesselkInterpolated, Chebyshev interpolation for 2 <= |z| <= 64
+ *  auto : BesselkAuto, times the others when selected and uses the fastest one within the
+ *         relative error "besselk.auto.tol" for each region of |z|
+ * 
+ * A BesselkCache can be put in front of the implementation by setting its size with the
+ * system property "besselk.cacheSize" (or setCacheSize), it is off (0) by default.
+ */
+public class Besselk {
+
+	public static final String BACKEND_PROPERTY = "besselk.backend";
+	public static final String JAVA = "java";
+	public static final String JNI = "jni";
+	public static final String FFM = "ffm";
+	public static final String VECTOR = "vector";
+	public static final String INTERPOLATED = "interpolated";
+	public static final String AUTO = "auto";
+	public static final String AUTO_TOL_PROPERTY = "besselk.auto.tol";
+	public static final double DEFAULT_AUTO_TOL = 1.0E-13;
+	public static final String CACHE_SIZE_PROPERTY = "besselk.cacheSize";
+	// The cache is off by default, Curvature calculates each argument once
+	public static final int DEFAULT_CACHE_SIZE = 0;
+
+	private static volatile BesselKProvider backend = null;
+	private static volatile BesselKProvider uncachedBackend = null;
+	private static volatile BesselkCache cache = null;
+	private static volatile String backendName = null;
+	private static int cacheSize = Integer.getInteger(CACHE_SIZE_PROPERTY, DEFAULT_CACHE_SIZE).intValue();
+
+	/**
+	 * Select the implementation used by all following calls
+	 * @param name java, jni, ffm, vector, interpolated, auto or the name of another provider
+	 * @throws IllegalArgumentException if the name is unknown or the backend can not be loaded
+	 */
+	public static synchronized void setBackend(String name) {
+		uncachedBackend = createBackend(name);
+		backendName = name;
+		setCache();
+	}
+
+	/**
+	 * Set the max number of arguments kept in the cache, the cache is cleared
+	 * @param size 0 turns the cache off
+	 */
+	public static synchronized void setCacheSize(int size) {
+		cacheSize = size;
+		if (uncachedBackend != null) {
+			setCache();
+		}
+	}
+
+	private static void setCache() {
+		if (cacheSize > 0) {
+			cache = new BesselkCache(uncachedBackend, cacheSize);
+			backend = cache;
+		} else {
+			cache = null;
+			backend = uncachedBackend;
+		}
+	}
+
+	/**
+	 * @return the cache in front of the implementation (hit and miss counters), null if turned off
+	 */
+	public static BesselkCache getCache() {
+		getBackendInstance();
+		return cache;
+	}
+
+	/**
+	 * @return name of the implementation in use
+	 */
+	public static String getBackend() {
+		getBackendInstance();
+		return backendName;
+	}
+
+	private static BesselKProvider getBackendInstance() {
+		BesselKProvider ret = backend;
+		if (ret == null) {
+			synchronized (Besselk.class) {
+				if (backend == null) {
+					setBackend(System.getProperty(BACKEND_PROPERTY, JAVA));
+				}
+				ret = backend;
+			}
+		}
+		return ret;
+	}
+
+	/**
+	 * @return the implementations found by ServiceLoader that can be used, java is always there
+	 */
+	public static List<BesselKProvider> getProviders() {
+		return loadProviders(true);
+	}
+
+	private static List<BesselKProvider> loadProviders(boolean availableOnly) {
+		List<BesselKProvider> ret = new ArrayList<BesselKProvider>();
+		boolean hasJava = false;
+		Iterator<BesselKProvider> it = ServiceLoader.load(BesselKProvider.class, Besselk.class.getClassLoader()).iterator();
+		while (true) {
+			BesselKProvider provider;
+			try {
+				if (!it.hasNext()) {
+					break;
+				}
+				provider = it.next();
+				if (availableOnly && !provider.isAvailable()) {
+					continue;
+				}
+			} catch (Throwable e) {
+				// Listed but can not be loaded in this JVM (older JDK, module not added)
+				continue;
+			}
+			hasJava |= JAVA.equals(provider.getName());
+			ret.add(provider);
+		}
+		if (!hasJava) {
+			// Not packaged with the services file
+			ret.add(0, new BesselkJava.Provider());
+		}
+		return ret;
+	}
+
+	static BesselKProvider createBackend(String name) {
+		if (AUTO.equals(name)) {
+			double tol = Double.parseDouble(System.getProperty(AUTO_TOL_PROPERTY, Double.toString(DEFAULT_AUTO_TOL)));
+			return new BesselkAuto(getProviders(), tol);
+		}
+		List<BesselKProvider> providers = loadProviders(false);
+		StringBuffer names = new StringBuffer(AUTO);
+		for (BesselKProvider provider : providers) {
+			if (provider.getName().equals(name)) {
+				if (provider.isAvailable()) {
+					return provider;
+				}
+				throw new IllegalArgumentException("Bessel backend " + name + " is not available");
+			}
+			names.append(", " + provider.getName());
+		}
+		if (VECTOR.equals(name)) {
+			// Not loaded without "--add-modules jdk.incubator.vector", java gives the same results
+			return createBackend(JAVA);
+		}
+		throw new IllegalArgumentException("Unknown Bessel backend " + name + ", use " + names);
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z)
+	 *
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1, img order 1, error}
+	 */
+	public static void besselk(double zreal, double zimg, double[] ret) {
+		getBackendInstance().besselk(zreal, zimg, ret);
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z) for the first n points, see BesselkJINI.besselkBatch
+	 */
+	public static void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1,
+			double[] img1, int[] ierr) {
+		getBackendInstance().besselkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+	}
+
+	/**
+	 * @param z imput
+	 * @return complex[0] is besselk(z) of order 0, and complex[1] is besselk(z) of order 1
+	 * @throws Exception if a none 0 error tag is returned
+	 */
+	public static Complex[] getBesselK(Complex z) throws Exception {
+		double[] array = new double[5];
+		besselk(z.real(), z.imag(), array);
+		if (array[4] != 0.0d) {
+			throw new Exception("Error while calculatin BesselK for " + z + ", error code " + array[4]);
+		}
+		Complex[] retArray = new Complex[2];
+		retArray[0] = new Complex(array[0], array[1]);
+		retArray[1] = new Complex(array[2], array[3]);
+		return retArray;
+	}
+
+	/**
+	 * Arguments used by the model, z = k * r over |k| in [0.1, 10], arg k in [0, pi/2]
+	 * and r in [0.1, 10]
+	 * @return {real parts, imaginari parts}
+	 */
+	static double[][] modelArguments() {
+		int n = 0;
+		double[] zreal = new double[100000];
+		double[] zimg = new double[zreal.length];
+		for (double absK = 0.1; absK <= 10.0; absK *= 1.25) {
+			for (double argK = 0.0; argK <= Math.PI / 2; argK += Math.PI / 32) {
+				for (double r = 0.1; r <= 10.0; r *= 1.1) {
+					zreal[n] = absK * r * Math.cos(argK);
+					zimg[n] = absK * r * Math.sin(argK);
+					n++;
+				}
+			}
+		}
+		double[][] ret = new double[2][n];
+		System.arraycopy(zreal, 0, ret[0], 0, n);
+		System.arraycopy(zimg, 0, ret[1], 0, n);
+		return ret;
+	}
+
+	/**
+	 * Compares two backends on the arguments used by the model and prints the max
+	 * relative difference and the batch time of each.
+	 *
+	 * @param args two backend names, default "java jni"
+	 */
+	public static void main(String[] args) {
+		String nameA = args.length > 0 ? args[0] : JAVA;
+		String nameB = args.length > 1 ? args[1] : JNI;
+		BesselKProvider a = createBackend(nameA);
+		BesselKProvider b = createBackend(nameB);
+
+		double[][] z = modelArguments();
+		double[] zreal = z[0];
+		double[] zimg = z[1];
+		int n = zreal.length;
+		double[][] resA = new double[4][n];
+		double[][] resB = new double[4][n];
+		int[] ierrA = new int[n];
+		int[] ierrB = new int[n];
+		long timeA = 0;
+		long timeB = 0;
+		for (int rep = 0; rep < 10; rep++) {
+			long start = System.nanoTime();
+			a.besselkBatch(zreal, zimg, n, resA[0], resA[1], resA[2], resA[3], ierrA);
+			timeA = System.nanoTime() - start;
+			start = System.nanoTime();
+			b.besselkBatch(zreal, zimg, n, resB[0], resB[1], resB[2], resB[3], ierrB);
+			timeB = System.nanoTime() - start;
+		}
+		double maxRel0 = 0.0;
+		double maxRel1 = 0.0;
+		int errors = 0;
+		for (int i = 0; i < n; i++) {
+			if (ierrA[i] != ierrB[i]) {
+				errors++;
+				continue;
+			}
+			maxRel0 = Math.max(maxRel0, Math.hypot(resA[0][i] - resB[0][i], resA[1][i] - resB[1][i]) / Math.hypot(resB[0][i], resB[1][i]));
+			maxRel1 = Math.max(maxRel1, Math.hypot(resA[2][i] - resB[2][i], resA[3][i] - resB[3][i]) / Math.hypot(resB[2][i], resB[3][i]));
+		}
+		System.out.println("Points compared   :  " + n);
+		System.out.println("Error code diffs  :  " + errors);
+		System.out.println("Max rel. diff K0  :  " + maxRel0);
+		System.out.println("Max rel. diff K1  :  " + maxRel1);
+		System.out.println("Time " + nameA + " (ms) :  " + (timeA / 1.0E6));
+		System.out.println("Time " + nameB + " (ms) :  " + (timeB / 1.0E6));
+	}
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Picks an implementation per region of |z|. When created, every available
+ * BesselKProvider is timed on sample arguments of each region and compared with
+ * BesselkJava, each region is then routed to the fastest implementation that is within
+ * the relative error tol and at least MARGIN faster than BesselkJava. BesselkJava is used
+ * where no other implementation qualifies. Each implementation is warmed up with WARMUP
+ * batch calls, then RUNS batch calls of it and of BesselkJava are timed in turns and the
+ * median of the time ratios is compared, so the routing is not decided by the JIT compiler
+ * or by timing noise.
+ */
+public class BesselkAuto implements BesselKProvider {
+
+	public static final String NAME = "auto";
+
+	// Region i is REGION_EDGES[i] < |z| <= REGION_EDGES[i + 1]
+	private static final double[] REGION_EDGES = { 0.0, 2.0, 8.0, 18.0, 64.0, Double.POSITIVE_INFINITY };
+	// |z| range of the sample arguments of the first and last region
+	private static final double SAMPLE_MIN = 0.01;
+	private static final double SAMPLE_MAX = 256.0;
+	private static final int SAMPLES = 1000;
+	private static final int WARMUP = 10;
+	private static final int RUNS = 9;
+	// An implementation must take less than this fraction of the BesselkJava time
+	private static final double MARGIN = 0.9;
+
+	private final double tol;
+	private final BesselKProvider[] route;
+	private final double[] routeError;
+	private final double[] routeTime;
+
+	/**
+	 * Time the providers and build the routing table, takes about a second
+	 *
+	 * @param providers Available implementations, see Besselk.getProviders
+	 * @param tol Max relative error of K0 and K1
+	 */
+	public BesselkAuto(List<BesselKProvider> providers, double tol) {
+		this.tol = tol;
+		int regions = REGION_EDGES.length - 1;
+		route = new BesselKProvider[regions];
+		routeError = new double[regions];
+		routeTime = new double[regions];
+		BesselKProvider reference = new BesselkJava.Provider();
+		Random random = new Random(1);
+		for (int r = 0; r < regions; r++) {
+			double lo = Math.max(REGION_EDGES[r], SAMPLE_MIN);
+			double hi = Math.min(REGION_EDGES[r + 1], SAMPLE_MAX);
+			double[] zreal = new double[SAMPLES];
+			double[] zimg = new double[SAMPLES];
+			for (int i = 0; i < SAMPLES; i++) {
+				double rho = lo * Math.pow(hi / lo, random.nextDouble());
+				double arg = (random.nextDouble() - 0.5) * Math.PI;
+				zreal[i] = rho * Math.cos(arg);
+				zimg[i] = rho * Math.sin(arg);
+			}
+			double[][] expected = new double[4][SAMPLES];
+			int[] expectedErr = new int[SAMPLES];
+			reference.besselkBatch(zreal, zimg, SAMPLES, expected[0], expected[1], expected[2], expected[3], expectedErr);
+
+			route[r] = reference;
+			routeError[r] = 0.0;
+			routeTime[r] = time(reference, reference, zreal, zimg)[0];
+			double bestRatio = MARGIN;
+			for (BesselKProvider provider : providers) {
+				if (NAME.equals(provider.getName()) || BesselkJava.Provider.NAME.equals(provider.getName())) {
+					continue;
+				}
+				double error;
+				double[] time;
+				try {
+					error = error(provider, zreal, zimg, expected, expectedErr);
+					time = time(provider, reference, zreal, zimg);
+				} catch (Throwable e) {
+					// Provider that fails at runtime is not used
+					continue;
+				}
+				if (error <= tol && time[1] < bestRatio) {
+					route[r] = provider;
+					routeError[r] = error;
+					routeTime[r] = time[0];
+					bestRatio = time[1];
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return max relative error of K0 and K1, infinite if an error code differs
+	 */
+	private static double error(BesselKProvider provider, double[] zreal, double[] zimg, double[][] expected, int[] expectedErr) {
+		double[][] res = new double[4][SAMPLES];
+		int[] ierr = new int[SAMPLES];
+		provider.besselkBatch(zreal, zimg, SAMPLES, res[0], res[1], res[2], res[3], ierr);
+		double error = 0.0;
+		for (int i = 0; i < SAMPLES; i++) {
+			if (ierr[i] != expectedErr[i]) {
+				return Double.POSITIVE_INFINITY;
+			}
+			if (ierr[i] != 0) {
+				continue;
+			}
+			double e0 = Math.hypot(res[0][i] - expected[0][i], res[1][i] - expected[1][i]) / Math.hypot(expected[0][i], expected[1][i]);
+			double e1 = Math.hypot(res[2][i] - expected[2][i], res[3][i] - expected[3][i]) / Math.hypot(expected[2][i], expected[3][i]);
+			error = Math.max(error, Math.max(e0, e1));
+		}
+		return error;
+	}
+
+	/**
+	 * Time provider and reference in turns, after WARMUP warm up calls of each
+	 * @return {median time per argument in ns of RUNS batch calls of provider, median ratio
+	 * of the provider time to the reference time of the same run}
+	 */
+	private static double[] time(BesselKProvider provider, BesselKProvider reference, double[] zreal, double[] zimg) {
+		double[][] res = new double[4][SAMPLES];
+		int[] ierr = new int[SAMPLES];
+		for (int run = 0; run < WARMUP; run++) {
+			provider.besselkBatch(zreal, zimg, SAMPLES, res[0], res[1], res[2], res[3], ierr);
+			reference.besselkBatch(zreal, zimg, SAMPLES, res[0], res[1], res[2], res[3], ierr);
+		}
+		double[] times = new double[RUNS];
+		double[] ratios = new double[RUNS];
+		for (int run = 0; run < RUNS; run++) {
+			long start = System.nanoTime();
+			provider.besselkBatch(zreal, zimg, SAMPLES, res[0], res[1], res[2], res[3], ierr);
+			long time = System.nanoTime() - start;
+			start = System.nanoTime();
+			reference.besselkBatch(zreal, zimg, SAMPLES, res[0], res[1], res[2], res[3], ierr);
+			long referenceTime = System.nanoTime() - start;
+			times[run] = (double) time / SAMPLES;
+			ratios[run] = (double) time / referenceTime;
+		}
+		Arrays.sort(times);
+		Arrays.sort(ratios);
+		return new double[] { times[RUNS / 2], ratios[RUNS / 2] };
+	}
+
+	private static int region(double zreal, double zimg) {
+		double az = Math.hypot(zreal, zimg);
+		int r = 0;
+		while (r < REGION_EDGES.length - 2 && !(az <= REGION_EDGES[r + 1])) {
+			r++;
+		}
+		return r;
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	public boolean isAvailable() {
+		return true;
+	}
+
+	public void besselk(double zreal, double zimg, double[] ret) {
+		route[region(zreal, zimg)].besselk(zreal, zimg, ret);
+	}
+
+	public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		int regions = route.length;
+		int[] regionOf = new int[n];
+		int[] count = new int[regions];
+		for (int i = 0; i < n; i++) {
+			regionOf[i] = region(zreal[i], zimg[i]);
+			count[regionOf[i]]++;
+		}
+		for (int r = 0; r < regions; r++) {
+			if (count[r] == n) {
+				// All points in one region
+				route[r].besselkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+				return;
+			}
+		}
+		for (int r = 0; r < regions; r++) {
+			int m = count[r];
+			if (m == 0) {
+				continue;
+			}
+			int[] index = new int[m];
+			double[] zr = new double[m];
+			double[] zi = new double[m];
+			int j = 0;
+			for (int i = 0; i < n; i++) {
+				if (regionOf[i] == r) {
+					index[j] = i;
+					zr[j] = zreal[i];
+					zi[j] = zimg[i];
+					j++;
+				}
+			}
+			double[][] res = new double[4][m];
+			int[] err = new int[m];
+			route[r].besselkBatch(zr, zi, m, res[0], res[1], res[2], res[3], err);
+			for (j = 0; j < m; j++) {
+				int i = index[j];
+				real0[i] = res[0][j];
+				img0[i] = res[1][j];
+				real1[i] = res[2][j];
+				img1[i] = res[3][j];
+				ierr[i] = err[j];
+			}
+		}
+	}
+
+	/**
+	 * @return the implementation, measured error and time of each region
+	 */
+	public String toString() {
+		StringBuffer sb = new StringBuffer("BesselkAuto tol = " + tol);
+		for (int r = 0; r < route.length; r++) {
+			sb.append("\n  " + REGION_EDGES[r] + " < |z| <= " + REGION_EDGES[r + 1] + " : " + route[r].getName()
+					+ ", error " + routeError[r] + ", " + routeTime[r] + " ns");
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread safe cache of K0(z) and K1(z) keyed on the exact complex argument, put in
+ * front of a Bessel implementation by Besselk when "besselk.cacheSize" is set. Only
+ * worth it if the same arguments are evaluated many times and the implementation is
+ * slow, for example the same profile recalculated without reusing the Curvature. Each
+ * call allocates a key and takes a lock, which costs more than a java evaluation for
+ * arguments that are not repeated.
+ *
+ * The cache is split into segments, each a least recently used map with its own
+ * lock, so concurrent callers rarely wait on each other. When a segment is full the
+ * least recently used entry is evicted.
+ */
+public class BesselkCache implements BesselKProvider {
+
+	private static final int SEGMENTS = 16;
+
+	private final BesselKProvider backend;
+	private final int maxSize;
+	private final Segment[] segments = new Segment[SEGMENTS];
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+
+	/**
+	 * @param backend Implementation used on a cache miss
+	 * @param maxSize Max number of arguments kept
+	 */
+	BesselkCache(BesselKProvider backend, int maxSize) {
+		this.backend = backend;
+		this.maxSize = maxSize;
+		int segmentSize = Math.max(1, maxSize / SEGMENTS);
+		for (int i = 0; i < SEGMENTS; i++) {
+			segments[i] = new Segment(segmentSize);
+		}
+	}
+
+	/**
+	 * @return the name of the implementation behind the cache
+	 */
+	public String getName() {
+		return backend.getName();
+	}
+
+	public boolean isAvailable() {
+		return backend.isAvailable();
+	}
+
+	public void besselk(double zreal, double zimg, double[] ret) {
+		Key key = new Key(zreal, zimg);
+		Segment segment = segmentFor(key);
+		double[] value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (value != null) {
+			hits.increment();
+			System.arraycopy(value, 0, ret, 0, 5);
+			return;
+		}
+		misses.increment();
+		backend.besselk(zreal, zimg, ret);
+		value = new double[5];
+		System.arraycopy(ret, 0, value, 0, 5);
+		synchronized (segment) {
+			segment.put(key, value);
+		}
+	}
+
+	public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		// Look up all points, the misses are then calculated with one batch call
+		Key[] keys = new Key[n];
+		int[] missIndex = new int[n];
+		int missCount = 0;
+		for (int i = 0; i < n; i++) {
+			Key key = new Key(zreal[i], zimg[i]);
+			Segment segment = segmentFor(key);
+			double[] value;
+			synchronized (segment) {
+				value = segment.get(key);
+			}
+			if (value != null) {
+				real0[i] = value[0];
+				img0[i] = value[1];
+				real1[i] = value[2];
+				img1[i] = value[3];
+				ierr[i] = (int) value[4];
+			} else {
+				keys[i] = key;
+				missIndex[missCount++] = i;
+			}
+		}
+		hits.add(n - missCount);
+		misses.add(missCount);
+		if (missCount == 0) {
+			return;
+		}
+
+		double[] mzreal = new double[missCount];
+		double[] mzimg = new double[missCount];
+		for (int j = 0; j < missCount; j++) {
+			mzreal[j] = zreal[missIndex[j]];
+			mzimg[j] = zimg[missIndex[j]];
+		}
+		double[] mreal0 = new double[missCount];
+		double[] mimg0 = new double[missCount];
+		double[] mreal1 = new double[missCount];
+		double[] mimg1 = new double[missCount];
+		int[] mierr = new int[missCount];
+		backend.besselkBatch(mzreal, mzimg, missCount, mreal0, mimg0, mreal1, mimg1, mierr);
+		for (int j = 0; j < missCount; j++) {
+			int i = missIndex[j];
+			real0[i] = mreal0[j];
+			img0[i] = mimg0[j];
+			real1[i] = mreal1[j];
+			img1[i] = mimg1[j];
+			ierr[i] = mierr[j];
+			double[] value = { mreal0[j], mimg0[j], mreal1[j], mimg1[j], mierr[j] };
+			Segment segment = segmentFor(keys[i]);
+			synchronized (segment) {
+				segment.put(keys[i], value);
+			}
+		}
+	}
+
+	private Segment segmentFor(Key key) {
+		int h = key.hashCode();
+		h ^= (h >>> 16);
+		return segments[h & (SEGMENTS - 1)];
+	}
+
+	/**
+	 * @return number of arguments found in the cache
+	 */
+	public long getHits() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return number of arguments that had to be calculated
+	 */
+	public long getMisses() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return max number of arguments kept
+	 */
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	/**
+	 * @return number of arguments in the cache
+	 */
+	public int size() {
+		int size = 0;
+		for (int i = 0; i < SEGMENTS; i++) {
+			synchronized (segments[i]) {
+				size += segments[i].size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Remove all arguments and reset the counters
+	 */
+	public void clear() {
+		for (int i = 0; i < SEGMENTS; i++) {
+			synchronized (segments[i]) {
+				segments[i].clear();
+			}
+		}
+		hits.reset();
+		misses.reset();
+	}
+
+	public String toString() {
+		return "BesselkCache size = " + size() + "/" + maxSize + ", hits = " + getHits() + ", misses = " + getMisses();
+	}
+
+	/**
+	 * Least recently used map, must be used while holding its lock
+	 */
+	private static class Segment extends LinkedHashMap<Key, double[]> {
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		Segment(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		protected boolean removeEldestEntry(Map.Entry<Key, double[]> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+	/**
+	 * Exact complex argument, compared bit by bit
+	 */
+	private static final class Key {
+		private final long real;
+		private final long imag;
+
+		Key(double real, double imag) {
+			this.real = Double.doubleToLongBits(real);
+			this.imag = Double.doubleToLongBits(imag);
+		}
+
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return real == other.real && imag == other.imag;
+		}
+
+		public int hashCode() {
+			long h = real * 31 + imag;
+			return (int) (h ^ (h >>> 32));
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.io.File;
+import java.lang.foreign.Arena;
+import java.lang.foreign.FunctionDescriptor;
+import java.lang.foreign.Linker;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.SymbolLookup;
+import java.lang.foreign.ValueLayout;
+import java.lang.invoke.MethodHandle;
+
+/**
+ * Calls the Fortran function "besselk.f" directly through the Foreign Function & Memory
+ * API (java.lang.foreign), without the C wrapper "BesselkJINIimp.c" and without
+ * System.loadLibrary. Only the Fortran object has to be in the shared library.
+ *
+ * Requires Java 22 or newer (or Java 21 with --enable-preview), leave this file out
+ * when compiling with an older JDK.
+ *
+ * The library is looked up in this order:
+ *  - the path in the system property "besselk.library"
+ *  - System.mapLibraryName("besselk") in each directory of java.library.path
+ *  - System.mapLibraryName("besselk") through the normal dynamic linker search path
+ */
+public class BesselkFFM implements BesselKProvider {
+
+	public static final String NAME = "ffm";
+	public static final String LIBRARY_PROPERTY = "besselk.library";
+
+	private static final long DSIZE = ValueLayout.JAVA_DOUBLE.byteSize();
+	private static final long ISIZE = ValueLayout.JAVA_INT.byteSize();
+
+	/**
+	 * Off-heap arguments for besselk, allocated once per thread and freed with it
+	 */
+	private static class Scratch {
+		final MemorySegment zr, zi, r0, i0, r1, i1, ierr;
+
+		Scratch() {
+			MemorySegment s = Arena.ofAuto().allocate(6 * DSIZE + ISIZE, ValueLayout.JAVA_DOUBLE.byteAlignment());
+			zr = s.asSlice(0, DSIZE);
+			zi = s.asSlice(DSIZE, DSIZE);
+			r0 = s.asSlice(2 * DSIZE, DSIZE);
+			i0 = s.asSlice(3 * DSIZE, DSIZE);
+			r1 = s.asSlice(4 * DSIZE, DSIZE);
+			i1 = s.asSlice(5 * DSIZE, DSIZE);
+			ierr = s.asSlice(6 * DSIZE, ISIZE);
+		}
+	}
+
+	private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+	/**
+	 * The library is looked up the first time this class is used, so BesselkFFM itself
+	 * can be created (by ServiceLoader) when the library is missing
+	 */
+	private static class Native {
+		static final MemorySegment SYMBOL = findLibrary().find("besselk_")
+				.orElseThrow(() -> new UnsatisfiedLinkError("Symbol besselk_ not found"));
+		// SUBROUTINE BESSELK(ZR, ZI, REAL0, IMG0, REAL1, IMG1, IERR), all arguments by reference
+		static final MethodHandle BESSELK = Linker.nativeLinker().downcallHandle(SYMBOL,
+				FunctionDescriptor.ofVoid(ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS,
+						ValueLayout.ADDRESS, ValueLayout.ADDRESS, ValueLayout.ADDRESS));
+		// The same function with the addresses passed as 64 bit integers, which all 64 bit
+		// platforms of the linker pass like pointers, used by the batch loop so no
+		// MemorySegment is created per point
+		static final MethodHandle BESSELK_ADDRESS = Linker.nativeLinker().downcallHandle(SYMBOL,
+				FunctionDescriptor.ofVoid(ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG,
+						ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG, ValueLayout.JAVA_LONG));
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	/**
+	 * @return true if the library and the symbol besselk_ were found
+	 */
+	public boolean isAvailable() {
+		try {
+			return Native.BESSELK != null;
+		} catch (Throwable e) {
+			return false;
+		}
+	}
+
+	private static SymbolLookup findLibrary() {
+		String path = System.getProperty(LIBRARY_PROPERTY);
+		if (path != null) {
+			return SymbolLookup.libraryLookup(new File(path).toPath(), Arena.global());
+		}
+		String name = System.mapLibraryName("besselk");
+		String libraryPath = System.getProperty("java.library.path", "");
+		for (String dir : libraryPath.split(File.pathSeparator)) {
+			File file = new File(dir, name);
+			if (!dir.isEmpty() && file.isFile()) {
+				return SymbolLookup.libraryLookup(file.toPath(), Arena.global());
+			}
+		}
+		return SymbolLookup.libraryLookup(name, Arena.global());
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z) for the first n points of off-heap arrays, the Fortran
+	 * function reads and writes the segments directly so nothing is copied. The sizes are
+	 * checked once, then the address of each point is calculated and passed as a number, so
+	 * the segments are not sliced.
+	 *
+	 * @param zreal Real parts of complex input, n doubles
+	 * @param zimg Imaginari parts of complex input, n doubles
+	 * @param n Number of points
+	 * @param real0 Real parts of order 0, n doubles (output)
+	 * @param img0 Imaginari parts of order 0, n doubles (output)
+	 * @param real1 Real parts of order 1, n doubles (output)
+	 * @param img1 Imaginari parts of order 1, n doubles (output)
+	 * @param ierr Error codes, n ints, see BesselkJINI.besselk (output)
+	 * @throws IllegalArgumentException if a segment is not off-heap
+	 * @throws IndexOutOfBoundsException if a segment is too small for n points
+	 */
+	public static void besselkBatch(MemorySegment zreal, MemorySegment zimg, long n, MemorySegment real0, MemorySegment img0,
+			MemorySegment real1, MemorySegment img1, MemorySegment ierr) {
+		long zr = address(zreal, n * DSIZE);
+		long zi = address(zimg, n * DSIZE);
+		long r0 = address(real0, n * DSIZE);
+		long i0 = address(img0, n * DSIZE);
+		long r1 = address(real1, n * DSIZE);
+		long i1 = address(img1, n * DSIZE);
+		long err = address(ierr, n * ISIZE);
+		try {
+			for (long i = 0; i < n; i++) {
+				long off = i * DSIZE;
+				Native.BESSELK_ADDRESS.invokeExact(zr + off, zi + off, r0 + off, i0 + off, r1 + off, i1 + off, err + i * ISIZE);
+			}
+		} catch (Throwable t) {
+			throw new RuntimeException("Error while calling besselk_", t);
+		}
+	}
+
+	/**
+	 * @return the address of an off-heap segment of at least bytes bytes
+	 */
+	private static long address(MemorySegment segment, long bytes) {
+		if (!segment.isNative()) {
+			throw new IllegalArgumentException("Segment must be off-heap");
+		}
+		if (segment.byteSize() < bytes) {
+			throw new IndexOutOfBoundsException("Segment of " + segment.byteSize() + " bytes, " + bytes + " needed");
+		}
+		return segment.address();
+	}
+
+	private static void call(MemorySegment zr, MemorySegment zi, MemorySegment r0, MemorySegment i0, MemorySegment r1,
+			MemorySegment i1, MemorySegment ierr) {
+		try {
+			Native.BESSELK.invokeExact(zr, zi, r0, i0, r1, i1, ierr);
+		} catch (Throwable t) {
+			throw new RuntimeException("Error while calling besselk_", t);
+		}
+	}
+
+	public void besselk(double zreal, double zimg, double[] ret) {
+		Scratch s = SCRATCH.get();
+		s.zr.set(ValueLayout.JAVA_DOUBLE, 0, zreal);
+		s.zi.set(ValueLayout.JAVA_DOUBLE, 0, zimg);
+		call(s.zr, s.zi, s.r0, s.i0, s.r1, s.i1, s.ierr);
+		ret[0] = s.r0.get(ValueLayout.JAVA_DOUBLE, 0);
+		ret[1] = s.i0.get(ValueLayout.JAVA_DOUBLE, 0);
+		ret[2] = s.r1.get(ValueLayout.JAVA_DOUBLE, 0);
+		ret[3] = s.i1.get(ValueLayout.JAVA_DOUBLE, 0);
+		ret[4] = s.ierr.get(ValueLayout.JAVA_INT, 0);
+	}
+
+	public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		try (Arena arena = Arena.ofConfined()) {
+			long bytes = Math.max(1, n) * DSIZE;
+			long align = ValueLayout.JAVA_DOUBLE.byteAlignment();
+			MemorySegment zr = arena.allocate(bytes, align);
+			MemorySegment zi = arena.allocate(bytes, align);
+			MemorySegment r0 = arena.allocate(bytes, align);
+			MemorySegment i0 = arena.allocate(bytes, align);
+			MemorySegment r1 = arena.allocate(bytes, align);
+			MemorySegment i1 = arena.allocate(bytes, align);
+			MemorySegment err = arena.allocate(Math.max(1, n) * ISIZE, ValueLayout.JAVA_INT.byteAlignment());
+			MemorySegment.copy(zreal, 0, zr, ValueLayout.JAVA_DOUBLE, 0, n);
+			MemorySegment.copy(zimg, 0, zi, ValueLayout.JAVA_DOUBLE, 0, n);
+			besselkBatch(zr, zi, n, r0, i0, r1, i1, err);
+			MemorySegment.copy(r0, ValueLayout.JAVA_DOUBLE, 0, real0, 0, n);
+			MemorySegment.copy(i0, ValueLayout.JAVA_DOUBLE, 0, img0, 0, n);
+			MemorySegment.copy(r1, ValueLayout.JAVA_DOUBLE, 0, real1, 0, n);
+			MemorySegment.copy(i1, ValueLayout.JAVA_DOUBLE, 0, img1, 0, n);
+			MemorySegment.copy(err, ValueLayout.JAVA_INT, 0, ierr, 0, n);
+		}
+	}
+
+}
@@ -0,0 +1,200 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * K0(z) and K1(z) interpolated over the right half plane for RHO_MIN <= |z| <= RHO_MAX,
+ * other arguments are passed on to BesselkJava.
+ *
+ * The smooth functions gv(z) = Kv(z) exp(z) sqrt(2z / pi), which go to 1 for large |z|,
+ * are interpolated in polar coordinates (ln|z|, arg z) on a fixed grid of panels with
+ * DEGREE x DEGREE Chebyshev polynomials. A panel is built from BesselkJava the first
+ * time an argument falls in it, so only the part of the plane that is used is ever
+ * tabulated. Unlike BesselkRayTable this works for any argument, not only along one ray
+ * k * r, at the cost of a larger table.
+ */
+public class BesselkInterpolated implements BesselKProvider {
+
+	public static final String NAME = "interpolated";
+
+	// Range of |z|, below RHO_MIN the power series is fast and above RHO_MAX the
+	// continued fraction converges in a few iterations
+	private static final double RHO_MIN = 2.0;
+	private static final double RHO_MAX = 64.0;
+	// Number of panels in ln|z| and arg z, and nodes per panel in each direction
+	private static final int S_PANELS = 56;
+	private static final int T_PANELS = 32;
+	private static final int DEGREE = 8;
+
+	private static final double S_MIN = Math.log(RHO_MIN);
+	private static final double S_WIDTH = (Math.log(RHO_MAX) - S_MIN) / S_PANELS;
+	private static final double T_WIDTH = Math.PI / T_PANELS;
+
+	// coefs[panel][f][m * DEGREE + l], f = real g0, img g0, real g1, img g1
+	private final AtomicReferenceArray<double[][]> panels = new AtomicReferenceArray<double[][]>(S_PANELS * T_PANELS);
+
+	public String getName() {
+		return NAME;
+	}
+
+	public boolean isAvailable() {
+		return true;
+	}
+
+	public void besselk(double zreal, double zimg, double[] ret) {
+		double az = Math.hypot(zreal, zimg);
+		if (!(zreal >= 0.0 && az >= RHO_MIN && az <= RHO_MAX)) {
+			BesselkJava.besselk(zreal, zimg, ret);
+			return;
+		}
+		double s = Math.log(az);
+		double t = Math.atan2(zimg, zreal);
+		int is = Math.min(S_PANELS - 1, (int) ((s - S_MIN) / S_WIDTH));
+		int it = Math.min(T_PANELS - 1, (int) ((t + 0.5 * Math.PI) / T_WIDTH));
+		double[][] c = getPanel(is, it);
+		double x = 2.0 * (s - S_MIN - is * S_WIDTH) / S_WIDTH - 1.0;
+		double y = 2.0 * (t + 0.5 * Math.PI - it * T_WIDTH) / T_WIDTH - 1.0;
+		for (int f = 0; f < 4; f++) {
+			ret[f] = clenshaw2(c[f], x, y);
+		}
+
+		// Kv = gv * sqrt(pi / (2z)) * exp(-z)
+		double mod = Math.sqrt(Math.PI / (2.0 * az)) * Math.exp(-zreal);
+		double arg = -0.5 * t - zimg;
+		double fr = mod * Math.cos(arg);
+		double fi = mod * Math.sin(arg);
+		for (int f = 0; f < 4; f += 2) {
+			double re = ret[f] * fr - ret[f + 1] * fi;
+			double im = ret[f] * fi + ret[f + 1] * fr;
+			ret[f] = re;
+			ret[f + 1] = im;
+		}
+		ret[4] = 0.0;
+	}
+
+	public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		double[] ret = new double[5];
+		for (int i = 0; i < n; i++) {
+			besselk(zreal[i], zimg[i], ret);
+			real0[i] = ret[0];
+			img0[i] = ret[1];
+			real1[i] = ret[2];
+			img1[i] = ret[3];
+			ierr[i] = (int) ret[4];
+		}
+	}
+
+	private double[][] getPanel(int is, int it) {
+		int index = is * T_PANELS + it;
+		double[][] c = panels.get(index);
+		if (c == null) {
+			// Two threads may build the same panel, both get the same coefficients
+			c = fit(S_MIN + is * S_WIDTH, -0.5 * Math.PI + it * T_WIDTH);
+			panels.set(index, c);
+		}
+		return c;
+	}
+
+	/**
+	 * Chebyshev coefficients of g0 and g1 on the panel starting at (s0, t0)
+	 */
+	private static double[][] fit(double s0, double t0) {
+		int n = DEGREE;
+		double[] node = new double[n];
+		for (int j = 0; j < n; j++) {
+			node[j] = Math.cos(Math.PI * (j + 0.5) / n);
+		}
+		int count = n * n;
+		double[] zreal = new double[count];
+		double[] zimg = new double[count];
+		for (int j = 0; j < n; j++) {
+			double rho = Math.exp(s0 + 0.5 * S_WIDTH * (node[j] + 1.0));
+			for (int i = 0; i < n; i++) {
+				double t = t0 + 0.5 * T_WIDTH * (node[i] + 1.0);
+				zreal[j * n + i] = rho * Math.cos(t);
+				zimg[j * n + i] = rho * Math.sin(t);
+			}
+		}
+		double[][] g = new double[4][count];
+		int[] ierr = new int[count];
+		BesselkJava.besselkBatch(zreal, zimg, count, g[0], g[1], g[2], g[3], ierr);
+		for (int p = 0; p < count; p++) {
+			// multiply by exp(z) sqrt(2z / pi)
+			double az = Math.hypot(zreal[p], zimg[p]);
+			double mod = Math.sqrt(2.0 * az / Math.PI) * Math.exp(zreal[p]);
+			double arg = 0.5 * Math.atan2(zimg[p], zreal[p]) + zimg[p];
+			double fr = mod * Math.cos(arg);
+			double fi = mod * Math.sin(arg);
+			for (int f = 0; f < 4; f += 2) {
+				double re = g[f][p] * fr - g[f + 1][p] * fi;
+				double im = g[f][p] * fi + g[f + 1][p] * fr;
+				g[f][p] = re;
+				g[f + 1][p] = im;
+			}
+		}
+
+		// c[m][l] = (2/n)^2 sum_j sum_i g(j, i) T_m(node j) T_l(node i)
+		double[][] cos = new double[n][n];
+		for (int m = 0; m < n; m++) {
+			for (int j = 0; j < n; j++) {
+				cos[m][j] = Math.cos(Math.PI * m * (j + 0.5) / n);
+			}
+		}
+		double[][] c = new double[4][count];
+		double[] row = new double[n];
+		for (int f = 0; f < 4; f++) {
+			for (int j = 0; j < n; j++) {
+				// Transform in arg z first, row[l] for node j in ln|z|
+				for (int l = 0; l < n; l++) {
+					double sum = 0.0;
+					for (int i = 0; i < n; i++) {
+						sum += g[f][j * n + i] * cos[l][i];
+					}
+					row[l] = sum;
+				}
+				for (int m = 0; m < n; m++) {
+					for (int l = 0; l < n; l++) {
+						c[f][m * n + l] += 4.0 * row[l] * cos[m][j] / (n * n);
+					}
+				}
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Evaluate sum c[m][l] T_m(x) T_l(y) with the first term in each direction halved
+	 */
+	private static double clenshaw2(double[] c, double x, double y) {
+		int n = DEGREE;
+		double x2 = 2.0 * x;
+		double y2 = 2.0 * y;
+		double b1 = 0.0;
+		double b2 = 0.0;
+		for (int m = n - 1; m >= 0; m--) {
+			// Inner sum over l for row m
+			double d1 = 0.0;
+			double d2 = 0.0;
+			int base = m * n;
+			for (int l = n - 1; l >= 1; l--) {
+				double t = y2 * d1 - d2 + c[base + l];
+				d2 = d1;
+				d1 = t;
+			}
+			double inner = y * d1 - d2 + 0.5 * c[base];
+			if (m == 0) {
+				return x * b1 - b2 + 0.5 * inner;
+			}
+			double t = x2 * b1 - b2 + inner;
+			b2 = b1;
+			b1 = t;
+		}
+		return 0.0;
+	}
+
+}
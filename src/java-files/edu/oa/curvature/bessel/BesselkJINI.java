@@ -1,93 +1,189 @@
-/*
- * Created on Jul 30, 2004
- */
-package edu.oa.curvature.bessel;
-
-import JSci.maths.Complex;
-
-/**
- * This class is a wrapper to call a k-bessel function that is implemented
- * by AMOS, DONALD E., SANDIA NATIONAL LABORATORIES in Fortran. 
- * 
- * The class class uses java native methods to call a nother wrapper class 
- * implemented in C that then calls the Fortran function.
- * 
- * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
- */
-public class BesselkJINI {
-
-	/**
-	 * Calles K-Bessel function, Modified Bessel function of the second kind,
-	 * Bessel function of the third kind.
-	 * 
-	 * This function calls C function "BesselkJINIimp.c" through JNI interface.
-	 * the C function calls Fortran function "besselk.f" through C exter comand. 
-	 * then the Fortran function calls "cbesk.f" function after Amos, Donald E. 
-	 * with FNU = 0, KODE = 1, N = 2 and Z = (zreal, zimg). Which computes the 
-	 * modified Bessel function of the second kind for order 0 and 1. 
-	 *  
-	 * From "besk.f"    (ret of [4])
-	 *   IERR  - ERROR FLAG
-	 *              IERR=0, NORMAL RETURN - COMPUTATION COMPLETED
-	 *              IERR=1, INPUT ERROR   - NO COMPUTATION
-	 *              IERR=2, OVERFLOW      - NO COMPUTATION, FNU+N-1 IS
-	 *                      TOO LARGE OR CABS(Z) IS TOO SMALL OR BOTH
-	 *              IERR=3, CABS(Z) OR FNU+N-1 LARGE - COMPUTATION DONE
-	 *                      BUT LOSSES OF SIGNIFCANCE BY ARGUMENT
-	 *                      REDUCTION PRODUCE LESS THAN HALF OF MACHINE
-	 *                      ACCURACY
-	 *              IERR=4, CABS(Z) OR FNU+N-1 TOO LARGE - NO COMPUTA-
-	 *                      TION BECAUSE OF COMPLETE LOSSES OF SIGNIFI-
-	 *                      CANCE BY ARGUMENT REDUCTION
-	 *              IERR=5, ERROR              - NO COMPUTATION,
-	 *                      ALGORITHM TERMINATION CONDITION NOT MET
-	 *
-	 * @param zreal Real part of complex input
-	 * @param zimg Imaginari part of complex input
-	 * @return double array = {real order 0, img order 0, real order 1, img order 1, error}
-	 */
-	public native double[] besselk(double zreal, double zimg);
-
-	static {
-		/*
-		 * Our library is in a file called "besselk.dll"
-		 */
-		System.loadLibrary("besselk");
-	}
-
-	/**
-	 * Wrapper for native method besselk
-	 * 
-	 * @param z imput
-	 * @return complex[0] is besselk(z) of order 0, and complex[1] is besselk(z) of order 1
-	 * @throws Exception if native method returns a none 0 error tag
-	 */
-	public static Complex[] getBesselK(Complex z) throws Exception {
-		BesselkJINI besselk = new BesselkJINI();
-		double[] array = besselk.besselk(z.real(), z.imag());
-		if (array[4] != 0.0d) {
-			throw new Exception("Error while calculatin BesselK for " + z + ", error code " + array[4]);
-		}
-		Complex[] retArray = new Complex[2];
-		retArray[0] = new Complex(array[0], array[1]);
-		retArray[1] = new Complex(array[2], array[3]);
-		return retArray;
-	}
-
-	/**
-	 * To Test function
-	 * 
-	 * @param args
-	 */
-	public static void main(String[] args) {
-		BesselkJINI besselk = new BesselkJINI();
-		double[] array = besselk.besselk(5.0f, 6.0f);
-		System.out.println("Java:");
-		System.out.println("  0 real:  " + array[0]);
-		System.out.println("  0 img :  " + array[1]);
-		System.out.println("  1 real:  " + array[2]);
-		System.out.println("  1 img :  " + array[3]);
-		System.out.println("  error :  " + array[4]);
-	}
-
-}
+/*
+ * Created on Jul 30, 2004
+ */
+package edu.oa.curvature.bessel;
+
+import JSci.maths.Complex;
+
+/**
+ * This class is a wrapper to call a k-bessel function that is implemented
+ * by AMOS, DONALD E., SANDIA NATIONAL LABORATORIES in Fortran. 
+ * 
+ * The class class uses java native methods to call a nother wrapper class 
+ * implemented in C that then calls the Fortran function.
+ * 
+ * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
+ */
+public class BesselkJINI {
+
+	/**
+	 * Calles K-Bessel function, Modified Bessel function of the second kind,
+	 * Bessel function of the third kind.
+	 * 
+	 * This function calls C function "BesselkJINIimp.c" through JNI interface.
+	 * the C function calls Fortran function "besselk.f" through C exter comand. 
+	 * then the Fortran function calls "cbesk.f" function after Amos, Donald E. 
+	 * with FNU = 0, KODE = 1, N = 2 and Z = (zreal, zimg). Which computes the 
+	 * modified Bessel function of the second kind for order 0 and 1. 
+	 *  
+	 * From "besk.f"    (ret of [4])
+	 *   IERR  - ERROR FLAG
+	 *              IERR=0, NORMAL RETURN - COMPUTATION COMPLETED
+	 *              IERR=1, INPUT ERROR   - NO COMPUTATION
+	 *              IERR=2, OVERFLOW      - NO COMPUTATION, FNU+N-1 IS
+	 *                      TOO LARGE OR CABS(Z) IS TOO SMALL OR BOTH
+	 *              IERR=3, CABS(Z) OR FNU+N-1 LARGE - COMPUTATION DONE
+	 *                      BUT LOSSES OF SIGNIFCANCE BY ARGUMENT
+	 *                      REDUCTION PRODUCE LESS THAN HALF OF MACHINE
+	 *                      ACCURACY
+	 *              IERR=4, CABS(Z) OR FNU+N-1 TOO LARGE - NO COMPUTA-
+	 *                      TION BECAUSE OF COMPLETE LOSSES OF SIGNIFI-
+	 *                      CANCE BY ARGUMENT REDUCTION
+	 *              IERR=5, ERROR              - NO COMPUTATION,
+	 *                      ALGORITHM TERMINATION CONDITION NOT MET
+	 *
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1,
+	 * img order 1, error}, in one copy and without allocating
+	 */
+	public native void besselk(double zreal, double zimg, double[] ret);
+
+	/**
+	 * Batch version of besselk for points offset ... offset+n-1, the C function pins the
+	 * arrays and calls the Fortran function for each point, so a whole grid is done in
+	 * one JNI crossing without allocating anything.
+	 */
+	private static native void nativeBesselkBatch(double[] zreal, double[] zimg, int offset, int n, double[] real0, 
+			double[] img0, double[] real1, double[] img1, int[] ierr);
+
+	// Max points per native batch call, while the C function holds the arrays the
+	// garbage collector can be blocked for all threads
+	private static final int BATCH_CHUNK = 1024;
+
+	// The native method has no state so one instance is shared by all callers
+	private static final BesselkJINI besselk = new BesselkJINI();
+
+	// Why the library could not be loaded, null if it was
+	private static final Throwable loadError;
+
+	static {
+		/*
+		 * Our library is in a file called "besselk.dll", if it is missing the class is
+		 * still usable and the native methods throw UnsatisfiedLinkError
+		 */
+		Throwable error = null;
+		try {
+			System.loadLibrary("besselk");
+		} catch (Throwable e) {
+			error = e;
+		}
+		loadError = error;
+	}
+
+	/**
+	 * @return true if the native library has been loaded
+	 */
+	public static boolean isLoaded() {
+		return loadError == null;
+	}
+
+	/**
+	 * @return why the native library could not be loaded, null if it was
+	 */
+	public static Throwable getLoadError() {
+		return loadError;
+	}
+
+	/**
+	 * Wrapper for native method besselk, small and large |z| are done in Java by
+	 * AsymptoticExpansions.besselk and only the rest is passed to the native method.
+	 * 
+	 * @param z imput
+	 * @return complex[0] is besselk(z) of order 0, and complex[1] is besselk(z) of order 1
+	 * @throws Exception if native method returns a none 0 error tag
+	 */
+	public static Complex[] getBesselK(Complex z) throws Exception {
+		double[] array = new double[5];
+		if (!AsymptoticExpansions.besselk(z.real(), z.imag(), array)) {
+			besselk.besselk(z.real(), z.imag(), array);
+		}
+		if (array[4] != 0.0d) {
+			throw new Exception("Error while calculatin BesselK for " + z + ", error code " + array[4]);
+		}
+		Complex[] retArray = new Complex[2];
+		retArray[0] = new Complex(array[0], array[1]);
+		retArray[1] = new Complex(array[2], array[3]);
+		return retArray;
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z) for the first n points of zreal + i * zimg in native
+	 * calls of BATCH_CHUNK points and writes the result into the caller supplied arrays.
+	 * The native code keeps no state between calls, so any number of threads can call
+	 * this (and besselk) at the same time, see BesselkJINIimp.c and BesselkStress.
+	 * 
+	 * @param zreal Real parts of complex input
+	 * @param zimg Imaginari parts of complex input
+	 * @param n Number of points
+	 * @param real0 Real parts of order 0 (output)
+	 * @param img0 Imaginari parts of order 0 (output)
+	 * @param real1 Real parts of order 1 (output)
+	 * @param img1 Imaginari parts of order 1 (output)
+	 * @param ierr Error codes, see besselk (output)
+	 */
+	public static void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, 
+			double[] img1, int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		for (int offset = 0; offset < n; offset += BATCH_CHUNK) {
+			nativeBesselkBatch(zreal, zimg, offset, Math.min(BATCH_CHUNK, n - offset), real0, img0, real1, img1, ierr);
+		}
+	}
+
+	/**
+	 * BesselkJINI as a BesselKProvider, named "jni". Single points with small or large
+	 * |z| are done by AsymptoticExpansions.besselk.
+	 */
+	public static class Provider implements BesselKProvider {
+
+		public static final String NAME = "jni";
+
+		public String getName() {
+			return NAME;
+		}
+
+		public boolean isAvailable() {
+			return isLoaded();
+		}
+
+		public void besselk(double zreal, double zimg, double[] ret) {
+			if (AsymptoticExpansions.besselk(zreal, zimg, ret)) {
+				return;
+			}
+			besselk.besselk(zreal, zimg, ret);
+		}
+
+		public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1,
+				double[] img1, int[] ierr) {
+			BesselkJINI.besselkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		}
+	}
+
+	/**
+	 * To Test function
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		BesselkJINI besselk = new BesselkJINI();
+		double[] array = new double[5];
+		besselk.besselk(5.0f, 6.0f, array);
+		System.out.println("Java:");
+		System.out.println("  0 real:  " + array[0]);
+		System.out.println("  0 img :  " + array[1]);
+		System.out.println("  1 real:  " + array[2]);
+		System.out.println("  1 img :  " + array[3]);
+		System.out.println("  error :  " + array[4]);
+	}
+
+}
@@ -0,0 +1,421 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import JSci.maths.Complex;
+
+/**
+ * Pure Java implementation of the modified Bessel function of the second kind
+ * K0(z) and K1(z) for complex z, meant as a drop in replacement for the
+ * Amos ZBESK routine called through BesselkJINI.
+ *
+ * Two methods are used, in the same way as Amos does:
+ *  |z| <= 2 : the ascending power series, Ref: Handbook of Mathematical Functions ...,
+ *             Ed. Milton Abramowitz and Irene A. Stegun, formula 9.6.11 and 9.6.13
+ *  |z| >  2 : Temme's continued fraction (CF2) evaluated with Steed's algorithm,
+ *             Ref: N. M. Temme (1975) J. Comput. Phys. 19:324 and
+ *             I. J. Thompson and A. R. Barnett (1987) Comput. Phys. Commun. 47:245
+ *
+ * Only the right half plane Re(z) >= 0 is supported, this is where all arguments
+ * k+ * r and k- * r of the model lie (k+ and k- are principal square roots and r > 0).
+ *
+ * The error codes follow ZBESK (see BesselkJINI) so both can be used in the same way.
+ */
+public class BesselkJava {
+
+	// Euler's constant
+	private static final double EULER = 0.57721566490153286061;
+	// Relative tolerance of the series and the continued fraction
+	private static final double EPS = 1.0E-16;
+	// Convergence is tested on squared moduli, |a| < EPS |b| as |a|^2 < EPS2 |b|^2, so the
+	// test uses only + and * and BesselkVector can repeat it bit for bit
+	static final double EPS2 = EPS * EPS;
+	// Max number of terms / iterations before giving up (IERR = 5)
+	static final int MAXIT = 10000;
+	// First coefficient of the continued fraction, 1/4 - v^2 for v = 0
+	static final double CF_A1 = 0.25;
+	// |z| bounds from ZBESK, above AZ_LOSS only half the digits are correct (IERR = 3)
+	// and above AZ_MAX no computation is done (IERR = 4)
+	static final double AZ_MAX = 0.5 * Integer.MAX_VALUE;
+	static final double AZ_LOSS = Math.sqrt(AZ_MAX);
+	// Switch between the power series and the continued fraction
+	static final double SERIES_RADIUS = 2.0;
+
+	/**
+	 * Calculates K0(z) and K1(z), the result uses the same layout as BesselkJINI.besselk
+	 *
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1, img order 1, error}
+	 */
+	public static void besselk(double zreal, double zimg, double[] ret) {
+		double az = Math.hypot(zreal, zimg);
+		if (az == 0.0 || zreal < 0.0 || Double.isNaN(az)) {
+			// Input error, no computation
+			setError(ret, 1);
+			return;
+		}
+		if (az > AZ_MAX) {
+			setError(ret, 4);
+			return;
+		}
+		int ierr;
+		if (az <= SERIES_RADIUS) {
+			ierr = series(zreal, zimg, ret);
+		} else {
+			ierr = continuedFraction(zreal, zimg, ret);
+		}
+		setErrorCode(az, ierr, ret);
+	}
+
+	/**
+	 * Sets ret[4] from the error code of series or continuedFraction, adds the loss of
+	 * significance and overflow codes
+	 */
+	static void setErrorCode(double az, int ierr, double[] ret) {
+		if (ierr != 0) {
+			setError(ret, ierr);
+			return;
+		}
+		if (az > AZ_LOSS) {
+			ierr = 3;
+		}
+		if (ierr == 0 && (Double.isInfinite(ret[0]) || Double.isInfinite(ret[1])
+				|| Double.isInfinite(ret[2]) || Double.isInfinite(ret[3]))) {
+			// Overflow, only happens when |z| is very small
+			setError(ret, 2);
+			return;
+		}
+		ret[4] = ierr;
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z)
+	 *
+	 * @param zreal Real part of complex input
+	 * @param zimg Imaginari part of complex input
+	 * @return double array = {real order 0, img order 0, real order 1, img order 1, error}
+	 */
+	public static double[] besselk(double zreal, double zimg) {
+		double[] ret = new double[5];
+		besselk(zreal, zimg, ret);
+		return ret;
+	}
+
+	/**
+	 * Same as BesselkJINI.getBesselK but without any native calls
+	 *
+	 * @param z imput
+	 * @return complex[0] is besselk(z) of order 0, and complex[1] is besselk(z) of order 1
+	 * @throws Exception if a none 0 error tag is returned
+	 */
+	public static Complex[] getBesselK(Complex z) throws Exception {
+		double[] array = besselk(z.real(), z.imag());
+		if (array[4] != 0.0d) {
+			throw new Exception("Error while calculatin BesselK for " + z + ", error code " + array[4]);
+		}
+		Complex[] retArray = new Complex[2];
+		retArray[0] = new Complex(array[0], array[1]);
+		retArray[1] = new Complex(array[2], array[3]);
+		return retArray;
+	}
+
+	/**
+	 * Calculates K0(z) and K1(z) for the first n points of zreal + i * zimg, same 
+	 * arguments as BesselkJINI.besselkBatch.
+	 * 
+	 * @param zreal Real parts of complex input
+	 * @param zimg Imaginari parts of complex input
+	 * @param n Number of points
+	 * @param real0 Real parts of order 0 (output)
+	 * @param img0 Imaginari parts of order 0 (output)
+	 * @param real1 Real parts of order 1 (output)
+	 * @param img1 Imaginari parts of order 1 (output)
+	 * @param ierr Error codes, see BesselkJINI.besselk (output)
+	 */
+	public static void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, 
+			double[] img1, int[] ierr) {
+		checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		double[] ret = new double[5];
+		for (int i = 0; i < n; i++) {
+			besselk(zreal[i], zimg[i], ret);
+			real0[i] = ret[0];
+			img0[i] = ret[1];
+			real1[i] = ret[2];
+			img1[i] = ret[3];
+			ierr[i] = (int) ret[4];
+		}
+	}
+
+	/**
+	 * BesselkJava as a BesselKProvider, named "java"
+	 */
+	public static class Provider implements BesselKProvider {
+
+		public static final String NAME = "java";
+
+		public String getName() {
+			return NAME;
+		}
+
+		public boolean isAvailable() {
+			return true;
+		}
+
+		public void besselk(double zreal, double zimg, double[] ret) {
+			BesselkJava.besselk(zreal, zimg, ret);
+		}
+
+		public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1,
+				double[] img1, int[] ierr) {
+			BesselkJava.besselkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		}
+	}
+
+	/**
+	 * Checks that all batch arrays hold at least n points
+	 */
+	static void checkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, 
+			double[] img1, int[] ierr) {
+		if (n < 0 || zreal.length < n || zimg.length < n || real0.length < n || img0.length < n 
+				|| real1.length < n || img1.length < n || ierr.length < n) {
+			throw new IllegalArgumentException("All batch arrays must have at least n = " + n + " elements");
+		}
+	}
+
+	static void setError(double[] ret, int ierr) {
+		ret[0] = 0.0;
+		ret[1] = 0.0;
+		ret[2] = 0.0;
+		ret[3] = 0.0;
+		ret[4] = ierr;
+	}
+
+	/**
+	 * Power series for small |z|, A&S 9.6.11 and 9.6.13 with psi(k+1) = -EULER + H(k)
+	 *  K0(z) = -(ln(z/2) + EULER) I0(z) + sum H(k) t^k / (k!)^2
+	 *  K1(z) = 1/z + (z/2) (ln(z/2) + EULER) sum t^k / (k!(k+1)!) - (z/4) sum (H(k) + H(k+1)) t^k / (k!(k+1)!)
+	 * where t = z^2/4 and H(k) is the k-th harmonic number.
+	 *
+	 * @return the error code
+	 */
+	static int series(double zr, double zi, double[] ret) {
+		// t = z^2 / 4
+		double tr = 0.25 * (zr * zr - zi * zi);
+		double ti = 0.5 * zr * zi;
+
+		// Order 0 terms, t^k / (k!)^2
+		double t0r = 1.0, t0i = 0.0;
+		double i0r = 1.0, i0i = 0.0;
+		double s0r = 0.0, s0i = 0.0;
+		// Order 1 terms, t^k / (k!(k+1)!)
+		double t1r = 1.0, t1i = 0.0;
+		double p1r = 1.0, p1i = 0.0;
+		double s1r = 1.0, s1i = 0.0; // k = 0 term, H(0) + H(1) = 1
+		double hk = 0.0;
+		boolean converged = false;
+		for (int k = 1; k < MAXIT; k++) {
+			double hk1 = hk + 1.0 / k;       // H(k)
+			double hk2 = hk1 + 1.0 / (k + 1); // H(k+1)
+			double f0 = 1.0 / ((double) k * k);
+			double f1 = 1.0 / ((double) k * (k + 1));
+			double nr = (t0r * tr - t0i * ti) * f0;
+			double ni = (t0r * ti + t0i * tr) * f0;
+			t0r = nr;
+			t0i = ni;
+			nr = (t1r * tr - t1i * ti) * f1;
+			ni = (t1r * ti + t1i * tr) * f1;
+			t1r = nr;
+			t1i = ni;
+			i0r += t0r;
+			i0i += t0i;
+			s0r += hk1 * t0r;
+			s0i += hk1 * t0i;
+			p1r += t1r;
+			p1i += t1i;
+			s1r += (hk1 + hk2) * t1r;
+			s1i += (hk1 + hk2) * t1i;
+			hk = hk1;
+			double h2 = hk2 * hk2;
+			double n0 = t0r * t0r + t0i * t0i;
+			double n1 = t1r * t1r + t1i * t1i;
+			if (h2 * n0 < EPS2 * (s0r * s0r + s0i * s0i)
+					&& h2 * n1 < EPS2 * (s1r * s1r + s1i * s1i)
+					&& n0 < EPS2 * (i0r * i0r + i0i * i0i)) {
+				converged = true;
+				break;
+			}
+		}
+		if (!converged) {
+			return 5;
+		}
+		seriesResult(zr, zi, i0r, i0i, s0r, s0i, p1r, p1i, s1r, s1i, ret);
+		return 0;
+	}
+
+	/**
+	 * K0 and K1 from the sums of the power series, I0 = sum t^k / (k!)^2,
+	 * S0 = sum H(k) t^k / (k!)^2, P1 = sum t^k / (k!(k+1)!) and
+	 * S1 = sum (H(k) + H(k+1)) t^k / (k!(k+1)!)
+	 */
+	static void seriesResult(double zr, double zi, double i0r, double i0i, double s0r, double s0i, double p1r, double p1i,
+			double s1r, double s1i, double[] ret) {
+		// l = ln(z/2) + EULER
+		double lr = Math.log(0.5 * Math.hypot(zr, zi)) + EULER;
+		double li = Math.atan2(zi, zr);
+
+		// K0 = -l * I0 + S0
+		ret[0] = -(lr * i0r - li * i0i) + s0r;
+		ret[1] = -(lr * i0i + li * i0r) + s0i;
+
+		// K1 = 1/z + (z/2) * l * P1 - (z/4) * S1
+		double az2 = zr * zr + zi * zi;
+		double wr = (lr * p1r - li * p1i) - 0.5 * s1r; // l * P1 - S1 / 2
+		double wi = (lr * p1i + li * p1r) - 0.5 * s1i;
+		ret[2] = zr / az2 + 0.5 * (zr * wr - zi * wi);
+		ret[3] = -zi / az2 + 0.5 * (zr * wi + zi * wr);
+	}
+
+	/**
+	 * Temme's continued fraction for K0 and K1, from the confluent hypergeometric
+	 * function U(1/2, 1, 2z), summed with Steed's algorithm. Converges for |z| >= 2
+	 * in the right half plane.
+	 *
+	 * @return the error code
+	 */
+	static int continuedFraction(double zr, double zi, double[] ret) {
+		// b = 2(1+z), d = 1/b, h = delh = d
+		double br = 2.0 * (1.0 + zr);
+		double bi = 2.0 * zi;
+		double den = br * br + bi * bi;
+		double dr = br / den;
+		double di = -bi / den;
+		double hr = dr, hi = di;
+		double delhr = dr, delhi = di;
+		double q1r = 0.0, q1i = 0.0;
+		double q2r = 1.0, q2i = 0.0;
+		double a1 = CF_A1;
+		double c = a1;
+		double a = -a1;
+		double qr = a1, qi = 0.0;
+		// s = 1 + q * delh
+		double sr = 1.0 + a1 * delhr;
+		double si = a1 * delhi;
+		boolean converged = false;
+		for (int i = 2; i < MAXIT; i++) {
+			a -= 2 * (i - 1);
+			c = -a * c / i;
+			// qnew = (q1 - b*q2) / a
+			double qnr = (q1r - (br * q2r - bi * q2i)) / a;
+			double qni = (q1i - (br * q2i + bi * q2r)) / a;
+			q1r = q2r;
+			q1i = q2i;
+			q2r = qnr;
+			q2i = qni;
+			qr += c * qnr;
+			qi += c * qni;
+			br += 2.0;
+			// d = 1 / (b + a*d)
+			double er = br + a * dr;
+			double ei = bi + a * di;
+			den = er * er + ei * ei;
+			dr = er / den;
+			di = -ei / den;
+			// delh = (b*d - 1) * delh
+			double fr = (br * dr - bi * di) - 1.0;
+			double fi = br * di + bi * dr;
+			double nr = fr * delhr - fi * delhi;
+			double ni = fr * delhi + fi * delhr;
+			delhr = nr;
+			delhi = ni;
+			hr += delhr;
+			hi += delhi;
+			// dels = q * delh
+			double delsr = qr * delhr - qi * delhi;
+			double delsi = qr * delhi + qi * delhr;
+			sr += delsr;
+			si += delsi;
+			if (delsr * delsr + delsi * delsi < EPS2 * (sr * sr + si * si)) {
+				converged = true;
+				break;
+			}
+		}
+		if (!converged) {
+			return 5;
+		}
+		continuedFractionResult(zr, zi, hr, hi, sr, si, ret);
+		return 0;
+	}
+
+	/**
+	 * K0 and K1 from the sums h and s of the continued fraction
+	 */
+	static void continuedFractionResult(double zr, double zi, double hr, double hi, double sr, double si, double[] ret) {
+		hr *= CF_A1;
+		hi *= CF_A1;
+
+		// K0 = sqrt(pi / (2z)) * exp(-z) / s
+		double az = Math.hypot(zr, zi);
+		double mod = Math.sqrt(Math.PI / (2.0 * az)) * Math.exp(-zr);
+		double arg = -0.5 * Math.atan2(zi, zr) - zi;
+		double fr = mod * Math.cos(arg);
+		double fi = mod * Math.sin(arg);
+		double den = sr * sr + si * si;
+		double k0r = (fr * sr + fi * si) / den;
+		double k0i = (fi * sr - fr * si) / den;
+
+		// K1 = K0 * (z + 1/2 - h) / z
+		double gr = zr + 0.5 - hr;
+		double gi = zi - hi;
+		den = zr * zr + zi * zi;
+		double wr = (gr * zr + gi * zi) / den;
+		double wi = (gi * zr - gr * zi) / den;
+		ret[0] = k0r;
+		ret[1] = k0i;
+		ret[2] = k0r * wr - k0i * wi;
+		ret[3] = k0r * wi + k0i * wr;
+	}
+
+	/**
+	 * Differential test against the native Amos implementation (BesselkJINI) over
+	 * the arguments used by the model, z = k * r with |k| in [0.1, 10], arg k in
+	 * [0, pi/2] and r in [0.1, 10]. Prints the max relative difference.
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		BesselkJINI native_ = new BesselkJINI();
+		double[] ret = new double[5];
+		double[] expected = new double[5];
+		double maxRel0 = 0.0;
+		double maxRel1 = 0.0;
+		int count = 0;
+		int errors = 0;
+		for (double absK = 0.1; absK <= 10.0; absK *= 1.25) {
+			for (double argK = 0.0; argK <= Math.PI / 2; argK += Math.PI / 32) {
+				for (double r = 0.1; r <= 10.0; r *= 1.1) {
+					double zr = absK * r * Math.cos(argK);
+					double zi = absK * r * Math.sin(argK);
+					native_.besselk(zr, zi, expected);
+					besselk(zr, zi, ret);
+					count++;
+					if (expected[4] != ret[4]) {
+						errors++;
+						System.out.println("Error code differs for z = (" + zr + ", " + zi + "): " + expected[4] + " != " + ret[4]);
+						continue;
+					}
+					double rel0 = Math.hypot(ret[0] - expected[0], ret[1] - expected[1]) / Math.hypot(expected[0], expected[1]);
+					double rel1 = Math.hypot(ret[2] - expected[2], ret[3] - expected[3]) / Math.hypot(expected[2], expected[3]);
+					maxRel0 = Math.max(maxRel0, rel0);
+					maxRel1 = Math.max(maxRel1, rel1);
+				}
+			}
+		}
+		System.out.println("Points compared   :  " + count);
+		System.out.println("Error code diffs  :  " + errors);
+		System.out.println("Max rel. diff K0  :  " + maxRel0);
+		System.out.println("Max rel. diff K1  :  " + maxRel1);
+	}
+
+}
@@ -0,0 +1,358 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Piecewise Chebyshev interpolation table of K0(k * r) and K1(k * r) for a fixed complex
+ * k and real r in [rMin, rMax].
+ *
+ * The smooth functions g0(r) = K0(k r) exp(k r) and g1(r) = K1(k r) exp(k r), which behave
+ * like sqrt(pi / (2 k r)), are interpolated so the relative error stays the same along the
+ * exponentially decaying tail. The range is split into panels, each panel is fitted with
+ * DEGREE Chebyshev polynomials. Panels whose error bound does not meet the tolerance are
+ * bisected.
+ *
+ * The error bound of a panel [a, b] follows from the analyticity of g0 and g1. They are
+ * analytic where Re(k r) > 0, and there |K_nu(k r)| <= K_nu(Re(k r)) (from the integral
+ * K_nu(z) = int_0^inf exp(-z cosh t) cosh(nu t) dt), so on a Bernstein ellipse E(rho) with
+ * foci a and b on which Re(k r) >= x > 0
+ *     |g_nu| <= M_nu = K_nu(x) exp(x)
+ * since K_nu(x) exp(x) decreases with x. The Chebyshev coefficients of g_nu are then at
+ * most 2 M_nu rho^-m, and the interpolant at the DEGREE nodes, whose error is at most twice
+ * the dropped coefficients (aliasing), is within
+ *     4 M_nu rho^(1 - DEGREE) / (rho - 1)
+ * of g_nu. Added to this are the error of the Bessel values at the nodes (BESSEL_ACCURACY
+ * times the Lebesgue constant) and the rounding of the Chebyshev sum. The bound is made
+ * relative with a lower bound of |g_nu| on [a, b], the smallest |g_nu| sampled between the
+ * nodes minus M_nu / (A - h) times the largest distance to a sample, where M_nu / (A - h)
+ * bounds |g_nu'| on [a, b] (Cauchy, A - h is the distance from [a, b] to E(rho)). The
+ * bound is calculated for ELLIPSES values of rho up to the largest allowed one, the
+ * smallest is used. It holds as long as the Bessel values are as accurate as
+ * BESSEL_ACCURACY.
+ */
+public class BesselkRayTable {
+
+	// Number of Chebyshev nodes per panel
+	private static final int DEGREE = 20;
+	// Max number of times a panel is bisected
+	private static final int MAX_DEPTH = 30;
+	// Assumed relative error of the Bessel values at the nodes
+	private static final double BESSEL_ACCURACY = 1.0E-14;
+	// Number of ellipses tried for the error bound of a panel
+	private static final int ELLIPSES = 12;
+
+	private final double kr;
+	private final double ki;
+	private final double rMin;
+	private final double rMax;
+	// Panel i covers [edges[i], edges[i+1]]
+	private final double[] edges;
+	// coefs[i][f][m], f = real g0, img g0, real g1, img g1
+	private final double[][][] coefs;
+	private double errorBound = 0.0;
+
+	/**
+	 * Build the table, this calls the Bessel function about 2 * DEGREE + ELLIPSES times per panel
+	 *
+	 * @param kr Real part of k
+	 * @param ki Imaginari part of k
+	 * @param rMin Start of range
+	 * @param rMax End of range
+	 * @param tol Relative error tolerance of K0 and K1
+	 * @throws Exception if Bessel function fails or the tolerance can not be met
+	 */
+	public BesselkRayTable(double kr, double ki, double rMin, double rMax, double tol) throws Exception {
+		if (!(rMin > 0.0 && rMin < rMax)) {
+			throw new Exception("Table range must satisfy 0 < rMin < rMax");
+		}
+		this.kr = kr;
+		this.ki = ki;
+		this.rMin = rMin;
+		this.rMax = rMax;
+
+		List<double[]> panels = new ArrayList<double[]>();
+		List<double[][]> fits = new ArrayList<double[][]>();
+		// Start with panels about one wavelength 1/|k| wide
+		int start = (int) Math.max(1, Math.ceil((rMax - rMin) * Math.hypot(kr, ki)));
+		double width = (rMax - rMin) / start;
+		for (int i = 0; i < start; i++) {
+			double a = rMin + i * width;
+			double b = (i == start - 1) ? rMax : rMin + (i + 1) * width;
+			fitPanel(a, b, tol, 0, panels, fits);
+		}
+
+		edges = new double[panels.size() + 1];
+		coefs = new double[panels.size()][][];
+		for (int i = 0; i < panels.size(); i++) {
+			edges[i] = panels.get(i)[0];
+			coefs[i] = fits.get(i);
+		}
+		edges[panels.size()] = rMax;
+	}
+
+	/**
+	 * Fit [a, b] and bisect until the tolerance is met, panels are added in order
+	 */
+	private void fitPanel(double a, double b, double tol, int depth, List<double[]> panels, List<double[][]> fits)
+			throws Exception {
+		double[][] c = fit(a, b);
+		double err = checkPanel(a, b, c);
+		if (!(err <= tol)) {
+			if (depth >= MAX_DEPTH) {
+				throw new Exception("Can not build Bessel table for k = (" + kr + ", " + ki + ") on [" + a + ", " + b
+						+ "] with relative error " + tol);
+			}
+			double m = 0.5 * (a + b);
+			fitPanel(a, m, tol, depth + 1, panels, fits);
+			fitPanel(m, b, tol, depth + 1, panels, fits);
+			return;
+		}
+		errorBound = Math.max(errorBound, err);
+		panels.add(new double[] { a, b });
+		fits.add(c);
+	}
+
+	/**
+	 * Chebyshev coefficients of g0 and g1 on [a, b]
+	 */
+	private double[][] fit(double a, double b) throws Exception {
+		int n = DEGREE;
+		double[] r = new double[n];
+		for (int j = 0; j < n; j++) {
+			double x = Math.cos(Math.PI * (j + 0.5) / n);
+			r[j] = 0.5 * (a + b) + 0.5 * (b - a) * x;
+		}
+		double[][] g = evaluateG(r);
+		double[][] c = new double[4][n];
+		for (int f = 0; f < 4; f++) {
+			for (int m = 0; m < n; m++) {
+				double sum = 0.0;
+				for (int j = 0; j < n; j++) {
+					sum += g[f][j] * Math.cos(Math.PI * m * (j + 0.5) / n);
+				}
+				c[f][m] = 2.0 * sum / n;
+			}
+		}
+		return c;
+	}
+
+	/**
+	 * Bound of the relative error of K0 and K1 on [a, b], see the class comment. The error
+	 * half way between the nodes is also checked, it can only be larger than the bound if the
+	 * Bessel values are less accurate than assumed.
+	 * @return the bound, Double.POSITIVE_INFINITY if none could be found
+	 */
+	private double checkPanel(double a, double b, double[][] c) throws Exception {
+		int n = DEGREE;
+		double center = 0.5 * (a + b);
+		double h = 0.5 * (b - a);
+
+		// Error half way between the nodes, smallest |g0| and |g1| there and largest distance
+		// from a point of [a, b] to such a sample
+		double[] r = new double[n - 1];
+		for (int j = 0; j < n - 1; j++) {
+			double x = Math.cos(Math.PI * (j + 1) / n);
+			r[j] = center + h * x;
+		}
+		double[][] g = evaluateG(r);
+		double[] v = new double[4];
+		double sampled = 0.0;
+		double gMin0 = Double.POSITIVE_INFINITY;
+		double gMin1 = Double.POSITIVE_INFINITY;
+		double distance = h * (1.0 - Math.cos(Math.PI / n));
+		for (int j = 0; j < n - 1; j++) {
+			clenshaw(c, (r[j] - center) / h, v);
+			double mod0 = Math.hypot(g[0][j], g[1][j]);
+			double mod1 = Math.hypot(g[2][j], g[3][j]);
+			sampled = Math.max(sampled, Math.hypot(v[0] - g[0][j], v[1] - g[1][j]) / mod0);
+			sampled = Math.max(sampled, Math.hypot(v[2] - g[2][j], v[3] - g[3][j]) / mod1);
+			gMin0 = Math.min(gMin0, mod0);
+			gMin1 = Math.min(gMin1, mod1);
+			if (j > 0) {
+				distance = Math.max(distance, 0.5 * (r[j - 1] - r[j]));
+			}
+		}
+
+		// Error of the Bessel values at the nodes times the Lebesgue constant, and rounding
+		// of the Chebyshev sum, relative to the sum of the coefficients
+		double sum0 = 0.0;
+		double sum1 = 0.0;
+		for (int m = 0; m < n; m++) {
+			sum0 += Math.hypot(c[0][m], c[1][m]);
+			sum1 += Math.hypot(c[2][m], c[3][m]);
+		}
+		double floor = BESSEL_ACCURACY * (2.0 / Math.PI * Math.log(n) + 1.0) + 2.0 * n * Math.ulp(1.0);
+
+		// Largest rho with Re(k r) > 0 on the ellipse
+		double rhoMax = 2.0;
+		while (minRe(center, h, rhoMax) > 0.0 && rhoMax < 1.0E8) {
+			rhoMax *= 2.0;
+		}
+		double lo = 1.0;
+		for (int i = 0; i < 60; i++) {
+			double mid = Math.sqrt(lo * rhoMax);
+			if (minRe(center, h, mid) > 0.0) {
+				lo = mid;
+			} else {
+				rhoMax = mid;
+			}
+		}
+		rhoMax = lo;
+		if (!(rhoMax > 1.0)) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		double[] rho = new double[ELLIPSES];
+		double[] x = new double[ELLIPSES];
+		for (int i = 0; i < ELLIPSES; i++) {
+			rho[i] = Math.pow(rhoMax, 1.0 - Math.pow(0.5, i + 1));
+			x[i] = minRe(center, h, rho[i]);
+		}
+		double[][] k = new double[4][ELLIPSES];
+		int[] ierr = new int[ELLIPSES];
+		Besselk.besselkBatch(x, new double[ELLIPSES], ELLIPSES, k[0], k[1], k[2], k[3], ierr);
+		double bound = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < ELLIPSES; i++) {
+			if (ierr[i] != 0) {
+				continue;
+			}
+			double m0 = Math.abs(k[0][i]) * Math.exp(x[i]);
+			double m1 = Math.abs(k[2][i]) * Math.exp(x[i]);
+			double dropped = 4.0 * Math.pow(rho[i], 1 - n) / (rho[i] - 1.0);
+			// Distance from [a, b] to the ellipse
+			double gap = 0.5 * h * (rho[i] + 1.0 / rho[i]) - h;
+			double low0 = gMin0 - m0 * distance / gap;
+			double low1 = gMin1 - m1 * distance / gap;
+			if (!(low0 > 0.0 && low1 > 0.0)) {
+				continue;
+			}
+			double e0 = (m0 * dropped + floor * sum0) / low0;
+			double e1 = (m1 * dropped + floor * sum1) / low1;
+			bound = Math.min(bound, Math.max(e0, e1));
+		}
+		return Math.max(bound, sampled);
+	}
+
+	/**
+	 * Smallest Re(k r) on the Bernstein ellipse E(rho) with foci center - h and center + h
+	 */
+	private double minRe(double center, double h, double rho) {
+		double major = 0.5 * h * (rho + 1.0 / rho);
+		double minor = 0.5 * h * (rho - 1.0 / rho);
+		return kr * center - Math.hypot(kr * major, ki * minor);
+	}
+
+	/**
+	 * g0(r) and g1(r) for all r
+	 * @return array of [real g0, img g0, real g1, img g1] values
+	 */
+	private double[][] evaluateG(double[] r) throws Exception {
+		int n = r.length;
+		double[] zreal = new double[n];
+		double[] zimg = new double[n];
+		for (int j = 0; j < n; j++) {
+			zreal[j] = kr * r[j];
+			zimg[j] = ki * r[j];
+		}
+		double[][] k = new double[4][n];
+		int[] ierr = new int[n];
+		Besselk.besselkBatch(zreal, zimg, n, k[0], k[1], k[2], k[3], ierr);
+		for (int j = 0; j < n; j++) {
+			if (ierr[j] != 0) {
+				throw new Exception("Error while calculatin BesselK for (" + zreal[j] + ", " + zimg[j] + "), error code " + ierr[j]);
+			}
+			// multiply by exp(k r)
+			double mod = Math.exp(zreal[j]);
+			double er = mod * Math.cos(zimg[j]);
+			double ei = mod * Math.sin(zimg[j]);
+			for (int f = 0; f < 4; f += 2) {
+				double re = k[f][j] * er - k[f + 1][j] * ei;
+				double im = k[f][j] * ei + k[f + 1][j] * er;
+				k[f][j] = re;
+				k[f + 1][j] = im;
+			}
+		}
+		return k;
+	}
+
+	/**
+	 * Evaluate the 4 series at x in [-1, 1]
+	 */
+	private static void clenshaw(double[][] c, double x, double[] ret) {
+		int n = c[0].length;
+		double x2 = 2.0 * x;
+		for (int f = 0; f < 4; f++) {
+			double[] cf = c[f];
+			double b1 = 0.0;
+			double b2 = 0.0;
+			for (int m = n - 1; m >= 1; m--) {
+				double t = x2 * b1 - b2 + cf[m];
+				b2 = b1;
+				b1 = t;
+			}
+			ret[f] = x * b1 - b2 + 0.5 * cf[0];
+		}
+	}
+
+	/**
+	 * @return true if r is in the range of the table
+	 */
+	public boolean contains(double r) {
+		return r >= rMin && r <= rMax;
+	}
+
+	/**
+	 * Interpolated K0(k * r) and K1(k * r), r must be in the range of the table
+	 *
+	 * @param r Radical distance
+	 * @param ret array of length >= 5 filled with {real order 0, img order 0, real order 1, img order 1, error}
+	 */
+	public void besselk(double r, double[] ret) {
+		// Find panel, edges[lo] <= r < edges[lo + 1]
+		int lo = 0;
+		int hi = edges.length - 2;
+		while (lo < hi) {
+			int mid = (lo + hi + 1) >>> 1;
+			if (edges[mid] <= r) {
+				lo = mid;
+			} else {
+				hi = mid - 1;
+			}
+		}
+		double a = edges[lo];
+		double b = edges[lo + 1];
+		clenshaw(coefs[lo], (2.0 * r - a - b) / (b - a), ret);
+
+		// multiply by exp(-k r)
+		double mod = Math.exp(-kr * r);
+		double er = mod * Math.cos(ki * r);
+		double ei = -mod * Math.sin(ki * r);
+		for (int f = 0; f < 4; f += 2) {
+			double re = ret[f] * er - ret[f + 1] * ei;
+			double im = ret[f] * ei + ret[f + 1] * er;
+			ret[f] = re;
+			ret[f + 1] = im;
+		}
+		ret[4] = 0.0;
+	}
+
+	/**
+	 * @return bound of the relative error of K0 and K1 on the range of the table, the
+	 * largest panel bound, see the class comment
+	 */
+	public double getErrorBound() {
+		return errorBound;
+	}
+
+	/**
+	 * @return number of panels
+	 */
+	public int getPanelCount() {
+		return coefs.length;
+	}
+
+}
@@ -0,0 +1,157 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi threaded stress and consistency test of the Bessel implementations. Each
+ * implementation is first run serially over the arguments used by the model, then many
+ * threads call it at the same time, single points and batches of random parts of the
+ * grid, and every result is compared bit by bit with the serial one. A cache with room
+ * for only part of the grid is tested the same way so entries are evicted while other
+ * threads read them.
+ *
+ * Run with: java edu.oa.curvature.bessel.BesselkStress [threads] [rounds] [backend ...]
+ * the default is twice the number of processors, 200 rounds per thread and all the
+ * available implementations. The native ones need the shared library on java.library.path.
+ */
+public class BesselkStress {
+
+	/**
+	 * @return number of results that differ from the serial run
+	 */
+	static long stress(final BesselKProvider provider, int threads, final int rounds) throws Exception {
+		final double[][] z = Besselk.modelArguments();
+		final int n = z[0].length;
+		final double[][] batch = new double[4][n];
+		final int[] batchErr = new int[n];
+		long start = System.nanoTime();
+		provider.besselkBatch(z[0], z[1], n, batch[0], batch[1], batch[2], batch[3], batchErr);
+		long serialTime = System.nanoTime() - start;
+		final double[][] single = new double[5][n];
+		double[] ret = new double[5];
+		for (int i = 0; i < n; i++) {
+			provider.besselk(z[0][i], z[1][i], ret);
+			for (int f = 0; f < 5; f++) {
+				single[f][i] = ret[f];
+			}
+		}
+
+		final AtomicLong points = new AtomicLong();
+		final AtomicLong diffs = new AtomicLong();
+		final CountDownLatch go = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<?>> futures = new ArrayList<Future<?>>();
+		for (int t = 0; t < threads; t++) {
+			final long seed = t;
+			futures.add(pool.submit(new Runnable() {
+				public void run() {
+					Random random = new Random(seed);
+					double[] ret = new double[5];
+					try {
+						go.await();
+					} catch (InterruptedException e) {
+						return;
+					}
+					for (int round = 0; round < rounds; round++) {
+						// A random part of the grid as one batch
+						int from = random.nextInt(n);
+						int m = 1 + random.nextInt(Math.min(2048, n - from));
+						double[] zr = new double[m];
+						double[] zi = new double[m];
+						System.arraycopy(z[0], from, zr, 0, m);
+						System.arraycopy(z[1], from, zi, 0, m);
+						double[][] res = new double[4][m];
+						int[] err = new int[m];
+						provider.besselkBatch(zr, zi, m, res[0], res[1], res[2], res[3], err);
+						for (int j = 0; j < m; j++) {
+							for (int f = 0; f < 4; f++) {
+								ret[f] = res[f][j];
+							}
+							ret[4] = err[j];
+							if (!isSerialResult(ret, from + j, batch, batchErr, single)) {
+								diffs.incrementAndGet();
+							}
+						}
+						// and random single points
+						for (int k = 0; k < 64; k++) {
+							int i = random.nextInt(n);
+							provider.besselk(z[0][i], z[1][i], ret);
+							if (!isSerialResult(ret, i, batch, batchErr, single)) {
+								diffs.incrementAndGet();
+							}
+						}
+						points.addAndGet(m + 64);
+					}
+				}
+			}));
+		}
+		start = System.nanoTime();
+		go.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		long parallelTime = System.nanoTime() - start;
+		pool.shutdown();
+
+		double serialRate = n / (serialTime / 1.0E9);
+		double parallelRate = points.get() / (parallelTime / 1.0E9);
+		System.out.println(provider.getName() + (provider instanceof BesselkCache ? " (cached)" : "") + ":");
+		System.out.println("  Threads           :  " + threads);
+		System.out.println("  Points compared   :  " + points.get());
+		System.out.println("  Not bit equal     :  " + diffs.get());
+		System.out.println("  Serial points/s   :  " + (long) serialRate);
+		System.out.println("  Parallel points/s :  " + (long) parallelRate);
+		return diffs.get();
+	}
+
+	/**
+	 * @return true if ret is bit for bit the serial batch or single point result of point i,
+	 * the two can differ (jni does single points in Java) and a cache returns either
+	 */
+	private static boolean isSerialResult(double[] ret, int i, double[][] batch, int[] batchErr, double[][] single) {
+		boolean sameBatch = ret[4] == batchErr[i];
+		boolean sameSingle = true;
+		for (int f = 0; f < 4; f++) {
+			long bits = Double.doubleToLongBits(ret[f]);
+			sameBatch &= bits == Double.doubleToLongBits(batch[f][i]);
+			sameSingle &= bits == Double.doubleToLongBits(single[f][i]);
+		}
+		sameSingle &= ret[4] == single[4][i];
+		return sameBatch || sameSingle;
+	}
+
+	/**
+	 * @param args [threads] [rounds] [backend ...]
+	 */
+	public static void main(String[] args) throws Exception {
+		int threads = args.length > 0 ? Integer.parseInt(args[0]) : 2 * Runtime.getRuntime().availableProcessors();
+		int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+		List<BesselKProvider> providers = new ArrayList<BesselKProvider>();
+		if (args.length > 2) {
+			for (int i = 2; i < args.length; i++) {
+				providers.add(Besselk.createBackend(args[i]));
+			}
+		} else {
+			providers.addAll(Besselk.getProviders());
+		}
+
+		long diffs = 0;
+		for (BesselKProvider provider : providers) {
+			diffs += stress(provider, threads, rounds);
+			// Room for about a quarter of the grid
+			diffs += stress(new BesselkCache(provider, 4096), threads, rounds);
+		}
+		System.out.println(diffs == 0 ? "OK, parallel results are the same as serial" : "FAILED, " + diffs + " results differ");
+	}
+
+}
@@ -0,0 +1,334 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.bessel;
+
+import java.util.Arrays;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Batch K0(z) and K1(z) with the Vector API (jdk.incubator.vector), the power series
+ * and the continued fraction of BesselkJava are run for SPECIES.length() arguments at
+ * once (4 with AVX2, 8 with AVX-512).
+ *
+ * The points of a batch are sorted into series points and continued fraction points,
+ * each group is done a vector at a time. A lane that has converged is frozen (masked)
+ * while the others go on, so every lane does exactly the iterations and the + - * /
+ * operations, in the same order, of the scalar BesselkJava code. The closing part with
+ * exp, log, sin and cos is done per lane by the same BesselkJava methods, so the results
+ * are the same bit for bit as BesselkJava.besselkBatch.
+ *
+ * Needs "--add-modules jdk.incubator.vector" when compiling and running, Besselk loads
+ * this class by name and uses BesselkJava when the module is not there.
+ */
+public class BesselkVector implements BesselKProvider {
+
+	public static final String NAME = "vector";
+
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	/**
+	 * @return number of arguments done per vector operation
+	 */
+	public static int getLaneCount() {
+		return SPECIES.length();
+	}
+
+	public String getName() {
+		return NAME;
+	}
+
+	public boolean isAvailable() {
+		// The class can only be loaded when the module is there
+		return true;
+	}
+
+	public void besselk(double zreal, double zimg, double[] ret) {
+		BesselkJava.besselk(zreal, zimg, ret);
+	}
+
+	public void besselkBatch(double[] zreal, double[] zimg, int n, double[] real0, double[] img0, double[] real1, double[] img1,
+			int[] ierr) {
+		BesselkJava.checkBatch(zreal, zimg, n, real0, img0, real1, img1, ierr);
+		double[] ret = new double[5];
+		int[] seriesIndex = new int[n];
+		int[] cfIndex = new int[n];
+		int seriesCount = 0;
+		int cfCount = 0;
+		for (int i = 0; i < n; i++) {
+			double az = Math.hypot(zreal[i], zimg[i]);
+			if (az == 0.0 || zreal[i] < 0.0 || Double.isNaN(az) || az > BesselkJava.AZ_MAX) {
+				// Error codes only
+				BesselkJava.besselk(zreal[i], zimg[i], ret);
+				store(ret, i, real0, img0, real1, img1, ierr);
+			} else if (az <= BesselkJava.SERIES_RADIUS) {
+				seriesIndex[seriesCount++] = i;
+			} else {
+				cfIndex[cfCount++] = i;
+			}
+		}
+
+		sortByModulus(zreal, zimg, seriesIndex, seriesCount);
+		sortByModulus(zreal, zimg, cfIndex, cfCount);
+		int lanes = SPECIES.length();
+		double[] zr = new double[lanes];
+		double[] zi = new double[lanes];
+		double[][] sums = new double[8][lanes];
+		boolean[] converged = new boolean[lanes];
+		for (int start = 0; start < seriesCount; start += lanes) {
+			int m = gather(zreal, zimg, seriesIndex, start, seriesCount, zr, zi);
+			series(zr, zi, sums, converged);
+			for (int j = 0; j < m; j++) {
+				int i = seriesIndex[start + j];
+				if (converged[j]) {
+					BesselkJava.seriesResult(zr[j], zi[j], sums[0][j], sums[1][j], sums[2][j], sums[3][j], sums[4][j],
+						sums[5][j], sums[6][j], sums[7][j], ret);
+				}
+				BesselkJava.setErrorCode(Math.hypot(zr[j], zi[j]), converged[j] ? 0 : 5, ret);
+				store(ret, i, real0, img0, real1, img1, ierr);
+			}
+		}
+		for (int start = 0; start < cfCount; start += lanes) {
+			int m = gather(zreal, zimg, cfIndex, start, cfCount, zr, zi);
+			continuedFraction(zr, zi, sums, converged);
+			for (int j = 0; j < m; j++) {
+				int i = cfIndex[start + j];
+				if (converged[j]) {
+					BesselkJava.continuedFractionResult(zr[j], zi[j], sums[0][j], sums[1][j], sums[2][j], sums[3][j], ret);
+				}
+				BesselkJava.setErrorCode(Math.hypot(zr[j], zi[j]), converged[j] ? 0 : 5, ret);
+				store(ret, i, real0, img0, real1, img1, ierr);
+			}
+		}
+	}
+
+	/**
+	 * Sort index[0..count) by |z|, the number of iterations depends mostly on |z| so
+	 * the lanes of a vector then converge at about the same time
+	 */
+	private static void sortByModulus(double[] zreal, double[] zimg, int[] index, int count) {
+		// The bits of a positive double sort like the double, so the high bits of |z|
+		// and the index are packed into one long
+		long[] keys = new long[count];
+		for (int j = 0; j < count; j++) {
+			long bits = Double.doubleToLongBits(Math.hypot(zreal[index[j]], zimg[index[j]]));
+			keys[j] = (bits & 0xFFFFFFFF00000000L) | index[j];
+		}
+		Arrays.sort(keys);
+		for (int j = 0; j < count; j++) {
+			index[j] = (int) keys[j];
+		}
+	}
+
+	/**
+	 * Copy the points index[start...] into zr and zi, a partly filled vector is padded
+	 * with the first point
+	 * @return number of real points
+	 */
+	private static int gather(double[] zreal, double[] zimg, int[] index, int start, int count, double[] zr, double[] zi) {
+		int m = Math.min(zr.length, count - start);
+		for (int j = 0; j < zr.length; j++) {
+			int i = index[start + (j < m ? j : 0)];
+			zr[j] = zreal[i];
+			zi[j] = zimg[i];
+		}
+		return m;
+	}
+
+	private static void store(double[] ret, int i, double[] real0, double[] img0, double[] real1, double[] img1, int[] ierr) {
+		real0[i] = ret[0];
+		img0[i] = ret[1];
+		real1[i] = ret[2];
+		img1[i] = ret[3];
+		ierr[i] = (int) ret[4];
+	}
+
+	/**
+	 * Vector version of the loop in BesselkJava.series
+	 * @param sums filled with I0, S0, P1 and S1 (real, img) per lane
+	 */
+	private static void series(double[] xr, double[] xi, double[][] sums, boolean[] converged) {
+		DoubleVector zr = DoubleVector.fromArray(SPECIES, xr, 0);
+		DoubleVector zi = DoubleVector.fromArray(SPECIES, xi, 0);
+		DoubleVector zero = DoubleVector.zero(SPECIES);
+		DoubleVector one = DoubleVector.broadcast(SPECIES, 1.0);
+		// t = z^2 / 4
+		DoubleVector tr = zr.mul(zr).sub(zi.mul(zi)).mul(0.25);
+		DoubleVector ti = zr.mul(0.5).mul(zi);
+
+		DoubleVector t0r = one, t0i = zero;
+		DoubleVector i0r = one, i0i = zero;
+		DoubleVector s0r = zero, s0i = zero;
+		DoubleVector t1r = one, t1i = zero;
+		DoubleVector p1r = one, p1i = zero;
+		DoubleVector s1r = one, s1i = zero;
+		double hk = 0.0;
+		VectorMask<Double> active = SPECIES.maskAll(true);
+		for (int k = 1; k < BesselkJava.MAXIT; k++) {
+			double hk1 = hk + 1.0 / k;
+			double hk2 = hk1 + 1.0 / (k + 1);
+			double f0 = 1.0 / ((double) k * k);
+			double f1 = 1.0 / ((double) k * (k + 1));
+			DoubleVector nr = t0r.mul(tr).sub(t0i.mul(ti)).mul(f0);
+			DoubleVector ni = t0r.mul(ti).add(t0i.mul(tr)).mul(f0);
+			t0r = nr;
+			t0i = ni;
+			nr = t1r.mul(tr).sub(t1i.mul(ti)).mul(f1);
+			ni = t1r.mul(ti).add(t1i.mul(tr)).mul(f1);
+			t1r = nr;
+			t1i = ni;
+			// Only lanes that have not converged are updated
+			i0r = i0r.blend(i0r.add(t0r), active);
+			i0i = i0i.blend(i0i.add(t0i), active);
+			s0r = s0r.blend(s0r.add(t0r.mul(hk1)), active);
+			s0i = s0i.blend(s0i.add(t0i.mul(hk1)), active);
+			p1r = p1r.blend(p1r.add(t1r), active);
+			p1i = p1i.blend(p1i.add(t1i), active);
+			s1r = s1r.blend(s1r.add(t1r.mul(hk1 + hk2)), active);
+			s1i = s1i.blend(s1i.add(t1i.mul(hk1 + hk2)), active);
+			hk = hk1;
+			double h2 = hk2 * hk2;
+			DoubleVector n0 = t0r.mul(t0r).add(t0i.mul(t0i));
+			DoubleVector n1 = t1r.mul(t1r).add(t1i.mul(t1i));
+			VectorMask<Double> done = n0.mul(h2).lt(s0r.mul(s0r).add(s0i.mul(s0i)).mul(BesselkJava.EPS2))
+					.and(n1.mul(h2).lt(s1r.mul(s1r).add(s1i.mul(s1i)).mul(BesselkJava.EPS2)))
+					.and(n0.lt(i0r.mul(i0r).add(i0i.mul(i0i)).mul(BesselkJava.EPS2)));
+			active = active.andNot(done);
+			if (!active.anyTrue()) {
+				break;
+			}
+		}
+		i0r.intoArray(sums[0], 0);
+		i0i.intoArray(sums[1], 0);
+		s0r.intoArray(sums[2], 0);
+		s0i.intoArray(sums[3], 0);
+		p1r.intoArray(sums[4], 0);
+		p1i.intoArray(sums[5], 0);
+		s1r.intoArray(sums[6], 0);
+		s1i.intoArray(sums[7], 0);
+		for (int j = 0; j < converged.length; j++) {
+			converged[j] = !active.laneIsSet(j);
+		}
+	}
+
+	/**
+	 * Vector version of the loop in BesselkJava.continuedFraction
+	 * @param sums filled with h and s (real, img) per lane
+	 */
+	private static void continuedFraction(double[] xr, double[] xi, double[][] sums, boolean[] converged) {
+		DoubleVector zr = DoubleVector.fromArray(SPECIES, xr, 0);
+		DoubleVector zi = DoubleVector.fromArray(SPECIES, xi, 0);
+		// b = 2(1+z), d = 1/b, h = delh = d
+		DoubleVector br = zr.add(1.0).mul(2.0);
+		DoubleVector bi = zi.mul(2.0);
+		DoubleVector den = br.mul(br).add(bi.mul(bi));
+		DoubleVector dr = br.div(den);
+		DoubleVector di = bi.neg().div(den);
+		DoubleVector hr = dr, hi = di;
+		DoubleVector delhr = dr, delhi = di;
+		DoubleVector q1r = DoubleVector.zero(SPECIES), q1i = DoubleVector.zero(SPECIES);
+		DoubleVector q2r = DoubleVector.broadcast(SPECIES, 1.0), q2i = DoubleVector.zero(SPECIES);
+		double a1 = BesselkJava.CF_A1;
+		double c = a1;
+		double a = -a1;
+		DoubleVector qr = DoubleVector.broadcast(SPECIES, a1), qi = DoubleVector.zero(SPECIES);
+		// s = 1 + q * delh
+		DoubleVector sr = delhr.mul(a1).add(1.0);
+		DoubleVector si = delhi.mul(a1);
+		VectorMask<Double> active = SPECIES.maskAll(true);
+		for (int i = 2; i < BesselkJava.MAXIT; i++) {
+			a -= 2 * (i - 1);
+			c = -a * c / i;
+			// qnew = (q1 - b*q2) / a
+			DoubleVector qnr = q1r.sub(br.mul(q2r).sub(bi.mul(q2i))).div(a);
+			DoubleVector qni = q1i.sub(br.mul(q2i).add(bi.mul(q2r))).div(a);
+			q1r = q2r;
+			q1i = q2i;
+			q2r = qnr;
+			q2i = qni;
+			qr = qr.add(qnr.mul(c));
+			qi = qi.add(qni.mul(c));
+			br = br.add(2.0);
+			// d = 1 / (b + a*d)
+			DoubleVector er = br.add(dr.mul(a));
+			DoubleVector ei = bi.add(di.mul(a));
+			den = er.mul(er).add(ei.mul(ei));
+			dr = er.div(den);
+			di = ei.neg().div(den);
+			// delh = (b*d - 1) * delh
+			DoubleVector fr = br.mul(dr).sub(bi.mul(di)).sub(1.0);
+			DoubleVector fi = br.mul(di).add(bi.mul(dr));
+			DoubleVector nr = fr.mul(delhr).sub(fi.mul(delhi));
+			DoubleVector ni = fr.mul(delhi).add(fi.mul(delhr));
+			delhr = nr;
+			delhi = ni;
+			// dels = q * delh, only lanes that have not converged are updated
+			DoubleVector delsr = qr.mul(delhr).sub(qi.mul(delhi));
+			DoubleVector delsi = qr.mul(delhi).add(qi.mul(delhr));
+			hr = hr.blend(hr.add(delhr), active);
+			hi = hi.blend(hi.add(delhi), active);
+			sr = sr.blend(sr.add(delsr), active);
+			si = si.blend(si.add(delsi), active);
+			VectorMask<Double> done = delsr.mul(delsr).add(delsi.mul(delsi)).lt(sr.mul(sr).add(si.mul(si)).mul(BesselkJava.EPS2));
+			active = active.andNot(done);
+			if (!active.anyTrue()) {
+				break;
+			}
+		}
+		hr.intoArray(sums[0], 0);
+		hi.intoArray(sums[1], 0);
+		sr.intoArray(sums[2], 0);
+		si.intoArray(sums[3], 0);
+		for (int j = 0; j < converged.length; j++) {
+			converged[j] = !active.laneIsSet(j);
+		}
+	}
+
+	/**
+	 * Compares the vector batch with BesselkJava.besselkBatch on the arguments used by
+	 * the model, prints the number of results that are not the same bit for bit and the
+	 * time of each.
+	 *
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		double[][] z = Besselk.modelArguments();
+		double[] zreal = z[0];
+		double[] zimg = z[1];
+		int n = zreal.length;
+		double[][] resA = new double[4][n];
+		double[][] resB = new double[4][n];
+		int[] ierrA = new int[n];
+		int[] ierrB = new int[n];
+		BesselkVector vector = new BesselkVector();
+		long timeA = 0;
+		long timeB = 0;
+		for (int rep = 0; rep < 50; rep++) {
+			long start = System.nanoTime();
+			vector.besselkBatch(zreal, zimg, n, resA[0], resA[1], resA[2], resA[3], ierrA);
+			timeA = System.nanoTime() - start;
+			start = System.nanoTime();
+			BesselkJava.besselkBatch(zreal, zimg, n, resB[0], resB[1], resB[2], resB[3], ierrB);
+			timeB = System.nanoTime() - start;
+		}
+		int diffs = 0;
+		for (int i = 0; i < n; i++) {
+			boolean same = ierrA[i] == ierrB[i];
+			for (int f = 0; f < 4; f++) {
+				same &= Double.doubleToLongBits(resA[f][i]) == Double.doubleToLongBits(resB[f][i]);
+			}
+			if (!same) {
+				diffs++;
+			}
+		}
+		System.out.println("Lanes             :  " + getLaneCount());
+		System.out.println("Points compared   :  " + n);
+		System.out.println("Not bit equal     :  " + diffs);
+		System.out.println("Time vector (ms)  :  " + (timeA / 1.0E6));
+		System.out.println("Time scalar (ms)  :  " + (timeB / 1.0E6));
+	}
+
+}
@@ -0,0 +1,282 @@
+/*
+ * Created on Oct 18, 2026
+ */
+package edu.oa.curvature.utils;
+
+/**
+ * Numerical integration of one or more functions that are evaluated together, for example
+ * all energy densities of a Curvature from the same Bessel values.
+ *
+ * integrate uses Gauss-Legendre rules on the panels between given edges and, for a semi
+ * infinite range, a Gauss-Laguerre rule for the exponentially decaying tail. Each part is
+ * calculated with two orders, the difference is reported as the error estimate. All nodes
+ * are passed to the integrand in one call. simpson integrates values that are already
+ * sampled on an equally spaced grid. Sums are compensated (Neumaier) so rounding does not
+ * grow with the number of points.
+ */
+public class Quadrature {
+
+	// Orders of the Gauss-Legendre rule on each panel, the lower one is for the error estimate
+	public static final int ORDER = 8;
+	public static final int LOW_ORDER = 5;
+	// Orders of the Gauss-Laguerre rule for the tail
+	public static final int TAIL_ORDER = 16;
+	public static final int TAIL_LOW_ORDER = 10;
+
+	private static final double[][] LEGENDRE = gaussLegendre(ORDER);
+	private static final double[][] LEGENDRE_LOW = gaussLegendre(LOW_ORDER);
+	private static final double[][] LAGUERRE = gaussLaguerre(TAIL_ORDER);
+	private static final double[][] LAGUERRE_LOW = gaussLaguerre(TAIL_LOW_ORDER);
+
+	/**
+	 * Functions to integrate
+	 */
+	public interface Integrand {
+
+		/**
+		 * @param x Points to evaluate the functions at
+		 * @param y Filled with the values, y[function][i] is the value of function at x[i]
+		 * @throws Exception if a function can not be evaluated
+		 */
+		void evaluate(double[] x, double[][] y) throws Exception;
+
+	}
+
+	/**
+	 * Integrals of each function, their error estimates and the number of points used
+	 */
+	public static class Result {
+
+		private final double[] value;
+		private final double[] error;
+		private final int evaluations;
+
+		Result(double[] value, double[] error, int evaluations) {
+			this.value = value;
+			this.error = error;
+			this.evaluations = evaluations;
+		}
+
+		/**
+		 * @return the integral of function i
+		 */
+		public double getValue(int i) {
+			return value[i];
+		}
+
+		/**
+		 * @return the estimated absolute error of getValue(i), difference of the high and
+		 * low order rules so usually much larger than the actual error
+		 */
+		public double getError(int i) {
+			return error[i];
+		}
+
+		/**
+		 * @return number of points the integrand was evaluated at
+		 */
+		public int getEvaluations() {
+			return evaluations;
+		}
+
+	}
+
+	/**
+	 * Compensated (Kahan-Babuska-Neumaier) sum
+	 */
+	public static class Sum {
+
+		private double sum;
+		private double compensation;
+
+		public void add(double value) {
+			double t = sum + value;
+			if (Math.abs(sum) >= Math.abs(value)) {
+				compensation += (sum - t) + value;
+			} else {
+				compensation += (value - t) + sum;
+			}
+			sum = t;
+		}
+
+		public double getValue() {
+			return sum + compensation;
+		}
+
+	}
+
+	/**
+	 * Integrate count functions over [edges[0], edges[edges.length - 1]] with Gauss-Legendre
+	 * rules on each panel between two edges, and if tailRate > 0 also over the tail
+	 * [edges[edges.length - 1], infinity) with a Gauss-Laguerre rule. The functions should be
+	 * smooth on each panel and in the tail decay about as exp(-tailRate * x).
+	 *
+	 * @param f Functions to integrate
+	 * @param count Number of functions
+	 * @param edges Panel edges in increasing order, at least one
+	 * @param tailRate Decay rate of the functions in the tail, 0 for no tail
+	 * @return the integrals
+	 * @throws Exception if f fails
+	 */
+	public static Result integrate(Integrand f, int count, double[] edges, double tailRate) throws Exception {
+		int panels = edges.length - 1;
+		boolean tail = tailRate > 0.0;
+		double[] high = rule(edges, tailRate, LEGENDRE, tail ? LAGUERRE : null);
+		double[] low = rule(edges, tailRate, LEGENDRE_LOW, tail ? LAGUERRE_LOW : null);
+		int nHigh = high.length / 2;
+		int nLow = low.length / 2;
+		double[] x = new double[nHigh + nLow];
+		System.arraycopy(high, 0, x, 0, nHigh);
+		System.arraycopy(low, 0, x, nHigh, nLow);
+		double[][] y = new double[count][x.length];
+		f.evaluate(x, y);
+
+		double[] value = new double[count];
+		double[] error = new double[count];
+		for (int v = 0; v < count; v++) {
+			Sum sumHigh = new Sum();
+			Sum sumLow = new Sum();
+			for (int i = 0; i < nHigh; i++) {
+				sumHigh.add(high[nHigh + i] * y[v][i]);
+			}
+			for (int i = 0; i < nLow; i++) {
+				sumLow.add(low[nLow + i] * y[v][nHigh + i]);
+			}
+			value[v] = sumHigh.getValue();
+			error[v] = Math.abs(value[v] - sumLow.getValue());
+		}
+		return new Result(value, error, panels * (ORDER + LOW_ORDER) + (tail ? TAIL_ORDER + TAIL_LOW_ORDER : 0));
+	}
+
+	/**
+	 * @return nodes followed by the weights of the composite rule
+	 */
+	private static double[] rule(double[] edges, double tailRate, double[][] legendre, double[][] laguerre) {
+		int panels = edges.length - 1;
+		int order = legendre[0].length;
+		int n = panels * order + (laguerre == null ? 0 : laguerre[0].length);
+		double[] rule = new double[2 * n];
+		int k = 0;
+		for (int p = 0; p < panels; p++) {
+			double half = 0.5 * (edges[p + 1] - edges[p]);
+			double center = edges[p] + half;
+			for (int i = 0; i < order; i++) {
+				rule[k] = center + half * legendre[0][i];
+				rule[n + k] = half * legendre[1][i];
+				k++;
+			}
+		}
+		if (laguerre != null) {
+			double start = edges[panels];
+			for (int i = 0; i < laguerre[0].length; i++) {
+				rule[k] = start + laguerre[0][i] / tailRate;
+				rule[n + k] = laguerre[1][i] / tailRate;
+				k++;
+			}
+		}
+		return rule;
+	}
+
+	/**
+	 * Gauss-Legendre rule on [-1, 1]
+	 *
+	 * @param n Number of nodes
+	 * @return {nodes, weights}
+	 */
+	public static double[][] gaussLegendre(int n) {
+		double[][] rule = new double[2][n];
+		for (int i = 0; i < (n + 1) / 2; i++) {
+			double z = Math.cos(Math.PI * (i + 0.75) / (n + 0.5));
+			double pp;
+			double z1;
+			do {
+				double p1 = 1.0;
+				double p2 = 0.0;
+				for (int j = 1; j <= n; j++) {
+					double p3 = p2;
+					p2 = p1;
+					p1 = ((2.0 * j - 1.0) * z * p2 - (j - 1.0) * p3) / j;
+				}
+				pp = n * (z * p1 - p2) / (z * z - 1.0);
+				z1 = z;
+				z = z1 - p1 / pp;
+			} while (Math.abs(z - z1) > 1.0E-15);
+			rule[0][i] = -z;
+			rule[0][n - 1 - i] = z;
+			rule[1][i] = 2.0 / ((1.0 - z * z) * pp * pp);
+			rule[1][n - 1 - i] = rule[1][i];
+		}
+		return rule;
+	}
+
+	/**
+	 * Gauss-Laguerre rule for the integral of g(x) over [0, infinity), the weights include
+	 * the factor exp(x) so they are applied to g(x) directly instead of g(x) exp(x)
+	 *
+	 * @param n Number of nodes
+	 * @return {nodes, weights}
+	 */
+	public static double[][] gaussLaguerre(int n) {
+		double[][] rule = new double[2][n];
+		double z = 0.0;
+		for (int i = 0; i < n; i++) {
+			// Initial guesses from the asymptotic distribution of the zeros
+			if (i == 0) {
+				z = 3.0 / (1.0 + 2.4 * n);
+			} else if (i == 1) {
+				z += 15.0 / (1.0 + 2.5 * n);
+			} else {
+				double ai = i - 1;
+				z += (1.0 + 2.55 * ai) / (1.9 * ai) * (z - rule[0][i - 2]);
+			}
+			double pp;
+			double p2;
+			double z1;
+			int iterations = 0;
+			do {
+				double p1 = 1.0;
+				p2 = 0.0;
+				for (int j = 1; j <= n; j++) {
+					double p3 = p2;
+					p2 = p1;
+					p1 = ((2.0 * j - 1.0 - z) * p2 - (j - 1.0) * p3) / j;
+				}
+				pp = (n * p1 - n * p2) / z;
+				z1 = z;
+				z = z1 - p1 / pp;
+			} while (Math.abs(z - z1) > 1.0E-15 * z && ++iterations < 100);
+			rule[0][i] = z;
+			rule[1][i] = -Math.exp(z) / (pp * n * p2);
+		}
+		return rule;
+	}
+
+	/**
+	 * Integrate values sampled on an equally spaced grid with the composite Simpson rule,
+	 * with an odd number of intervals the last three use Simpson's 3/8 rule.
+	 *
+	 * @param y Function values
+	 * @param h Distance between the points
+	 * @return the integral from the first to the last point
+	 */
+	public static double simpson(double[] y, double h) {
+		int n = y.length - 1;
+		if (n < 1) {
+			return 0.0;
+		}
+		if (n == 1) {
+			return 0.5 * h * (y[0] + y[1]);
+		}
+		// Intervals done with the 1/3 rule, an even number
+		int m = n % 2 == 0 ? n : n - 3;
+		Sum sum = new Sum();
+		for (int i = 0; i < m; i += 2) {
+			sum.add(h / 3.0 * (y[i] + 4.0 * y[i + 1] + y[i + 2]));
+		}
+		if (m < n) {
+			sum.add(3.0 * h / 8.0 * (y[m] + 3.0 * y[m + 1] + 3.0 * y[m + 2] + y[m + 3]));
+		}
+		return sum.getValue();
+	}
+
+}
@@ -1,30 +1,60 @@
-/*
- * Created on Aug 22, 2004
- */
-package edu.oa.curvature.utils;
-
-/**
- * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
- */
-public class Utils {
-
-	public static String setToHTML(String string) {
-		return "<html>" + string + "</html>";
-	}
-
-    /**
-     * Integrate the function under the curve to data where data[0] is x-axes
-     * and data[1] is y-axes. 
-     * @param data 
-     * @param interval same as data[1][i]-data[1][i+1] 
-     * @return the area under the curve
-     */
-	public static double integrate(double[][] data, double interval) {
-		double temp = 0.0;
-		for (int i = 0; i < data[1].length; i++) {
-			temp += data[1][i];
-		}
-		return temp * interval;
-	}
-	
-}
+/*
+ * Created on Aug 22, 2004
+ */
+package edu.oa.curvature.utils;
+
+import edu.oa.curvature.ProfileResult;
+
+/**
+ * @author Helgi I. Ingolfsson, hii@cs.cornell.edu
+ */
+public class Utils {
+
+	public static String setToHTML(String string) {
+		return "<html>" + string + "</html>";
+	}
+
+    /**
+     * Integrate the function under the curve to data where data[0] is x-axes
+     * and data[1] is y-axes with the composite Simpson rule (Quadrature.simpson). 
+     * @param data 
+     * @param interval same as data[0][i+1]-data[0][i] 
+     * @return the area under the curve between the first and last x value
+     */
+	public static double integrate(double[][] data, double interval) {
+		return Quadrature.simpson(data[1], interval);
+	}
+
+    /**
+     * Integrate the function under the curve to data where data[0] is x-axes
+     * and data[1] is y-axes with the trapezoidal rule, the x values do not have 
+     * to be equally spaced (see Curvature.getAdaptiveProfile).
+     * @param data 
+     * @return the area under the curve between the first and last x value
+     */
+	public static double integrate(double[][] data) {
+		double temp = 0.0;
+		for (int i = 1; i < data[0].length; i++) {
+			temp += 0.5 * (data[1][i - 1] + data[1][i]) * (data[0][i] - data[0][i - 1]);
+		}
+		return temp;
+	}
+
+    /**
+     * Integrate one column of a profile over its grid with the trapezoidal rule, like 
+     * integrate(double[][]) but reading the first profile.size() values in place.
+     * @param profile 
+     * @param value Curvature.U, DU, CE, SD, ST, MEC or DEF
+     * @return the area under the curve between the first and last r value
+     */
+	public static double integrate(ProfileResult profile, int value) {
+		double[] x = profile.getR();
+		double[] y = profile.getColumn(value);
+		double temp = 0.0;
+		for (int i = 1; i < profile.size(); i++) {
+			temp += 0.5 * (y[i - 1] + y[i]) * (x[i] - x[i - 1]);
+		}
+		return temp;
+	}
+	
+}
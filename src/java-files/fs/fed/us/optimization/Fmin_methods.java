@@ -1,8 +1,8 @@
-package fs.fed.us.optimization;
-//http://www1.fpl.fs.fed.us/optimization.html
-
-public interface Fmin_methods {
-
-	double f_to_minimize(double x);
-	
-}
+package fs.fed.us.optimization;
+//http://www1.fpl.fs.fed.us/optimization.html
+
+public interface Fmin_methods {
+
+	double f_to_minimize(double x);
+	
+}